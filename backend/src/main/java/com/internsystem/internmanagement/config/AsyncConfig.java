@@ -0,0 +1,74 @@
+package com.internsystem.internmanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Declaring {@link #bulkImportExecutor} makes Spring Boot skip its own default executor, which Spring MVC
+     * uses for async responses such as the streaming exports. Recreate it from the {@code spring.task.execution}
+     * settings so those responses do not fall back to a new thread per request.
+     */
+    @Bean(name = "applicationTaskExecutor")
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Runs bulk import jobs off the request thread. The pool is kept well below the Hikari pool size
+     * so imports cannot starve regular requests of connections; further uploads wait in the queue.
+     */
+    @Bean(name = "bulkImportExecutor")
+    public ThreadPoolTaskExecutor bulkImportExecutor(
+            @Value("${bulk-import.concurrency:2}") int concurrency,
+            @Value("${bulk-import.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread for the trainee API sync, so a slow upstream never holds up startup, request threads
+     * or the import pool.
+     */
+    @Bean(name = "traineeSyncExecutor")
+    public ThreadPoolTaskExecutor traineeSyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("trainee-sync-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes the chunks of a trainee sync in parallel. Each chunk holds a connection while it runs, so the
+     * thread count is capped at half the Hikari pool; the sync never has more chunks in flight than threads.
+     * The JDK of this project has no virtual threads, so these are regular platform threads.
+     */
+    @Bean(name = "traineeSyncWorkerExecutor")
+    public ThreadPoolTaskExecutor traineeSyncWorkerExecutor(
+            @Value("${trainee.sync.concurrency:4}") int concurrency,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int threads = Math.max(1, Math.min(concurrency, connectionPoolSize / 2));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("trainee-sync-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
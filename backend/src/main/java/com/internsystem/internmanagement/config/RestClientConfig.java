@@ -0,0 +1,28 @@
+package com.internsystem.internmanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RestClientConfig {
+
+    /**
+     * Client for the trainee API. A plain {@code new RestTemplate()} has no timeouts, so a hung upstream
+     * would block the sync thread forever.
+     */
+    @Bean(name = "traineeApiRestTemplate")
+    public RestTemplate traineeApiRestTemplate(
+            RestTemplateBuilder builder,
+            @Value("${trainee.api.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${trainee.api.read-timeout:60s}") Duration readTimeout) {
+        return builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+}
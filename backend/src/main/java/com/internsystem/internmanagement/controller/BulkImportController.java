@@ -1,29 +1,48 @@
 package com.internsystem.internmanagement.controller;
 
+import com.internsystem.internmanagement.dto.BulkImportJobDTO;
+import com.internsystem.internmanagement.service.BulkImportJobService;
 import com.internsystem.internmanagement.service.BulkImportService;
+import com.internsystem.internmanagement.service.SpreadsheetStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bulk-import")
 @CrossOrigin(origins = "*")
 public class BulkImportController {
 
+    public static final String WATERMARK_HEADER = "X-Export-Watermark";
+
     @Autowired
     private BulkImportService bulkImportService;
 
+    @Autowired
+    private BulkImportJobService bulkImportJobService;
+
+    /**
+     * Queues the file for import and returns the job immediately; poll {@code /jobs/{jobId}} for progress.
+     * With {@code dryRun=true} nothing is written and the response is a preview of the changes instead.
+     */
     @PostMapping("/upload")
-    public ResponseEntity<BulkImportService.BulkImportResult> uploadBulkData(
-            @RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadBulkData(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun) {
         
         if (file.isEmpty()) {
             BulkImportService.BulkImportResult result = new BulkImportService.BulkImportResult();
@@ -33,15 +52,23 @@ public class BulkImportController {
         
         String filename = file.getOriginalFilename();
         if (filename == null || 
-            (!filename.toLowerCase().endsWith(".csv") && !filename.toLowerCase().endsWith(".xlsx"))) {
+            (!filename.toLowerCase().endsWith(".csv") && !SpreadsheetStreamReader.isSpreadsheet(filename))) {
             BulkImportService.BulkImportResult result = new BulkImportService.BulkImportResult();
-            result.addError(0, "Only CSV and Excel (.xlsx) files are supported");
+            result.addError(0, "Only CSV and Excel (.xlsx, .xls) files are supported");
             return ResponseEntity.badRequest().body(result);
         }
         
+        if (dryRun) {
+            return ResponseEntity.ok(bulkImportService.previewBulkData(filename, file));
+        }
+        
         try {
-            BulkImportService.BulkImportResult result = bulkImportService.importBulkData(file);
-            return ResponseEntity.ok(result);
+            BulkImportJobDTO job = bulkImportJobService.submit(file);
+            return ResponseEntity.accepted().body(job);
+        } catch (TaskRejectedException e) {
+            BulkImportService.BulkImportResult result = new BulkImportService.BulkImportResult();
+            result.addError(0, "Too many imports are queued, please try again later");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
         } catch (Exception e) {
             BulkImportService.BulkImportResult result = new BulkImportService.BulkImportResult();
             result.addError(0, "Upload failed: " + e.getMessage());
@@ -49,53 +76,78 @@ public class BulkImportController {
         }
     }
 
-    @GetMapping("/export")
-    public ResponseEntity<Resource> exportData() {
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BulkImportJobDTO> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkImportJobService.getJob(jobId));
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<BulkImportJobDTO> cancelImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkImportJobService.cancelJob(jobId));
+    }
+
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<?> resumeImportJob(@PathVariable String jobId) {
         try {
-            String csvContent = bulkImportService.exportBulkData();
-            
-            // Create temporary file
-            Path tempPath = Files.createTempFile("intern-data-export", ".csv");
-            Files.write(tempPath, csvContent.getBytes());
-            
-            Resource resource = new org.springframework.core.io.FileSystemResource(tempPath.toFile());
-            
-            // Generate filename with current date
-            String today = java.time.LocalDate.now().toString();
-            String filename = "intern-data-export-" + today + ".csv";
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType("text/csv"))
-                    .body(resource);
-                    
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.accepted().body(bulkImportJobService.resumeJob(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Too many imports are queued, please try again later"));
         }
     }
 
+    /**
+     * Streams the CSV to the client while the rows are read from the database. With {@code since}
+     * (e.g. {@code 2025-01-31T08:00:00}) only rows whose intern, team or project changed afterwards are
+     * exported; pass the {@value #WATERMARK_HEADER} header of the response as {@code since} next time.
+     * The watermark lags behind the export (see {@link BulkImportService#exportWatermark()}), so
+     * consecutive exports can repeat rows and clients should apply them as upserts.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportData(
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        // Taken before anything is read, so changes made while exporting are picked up by the next export
+        LocalDateTime watermark = bulkImportService.exportWatermark();
+
+        // Generate filename with current date
+        String today = java.time.LocalDate.now().toString();
+        String filename = "intern-data-export-" + today + ".csv";
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            bulkImportService.exportBulkData(writer, since);
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(WATERMARK_HEADER, watermark.toString())
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
+    /**
+     * Streams the Excel export to the client; {@code since} works as for {@link #exportData}.
+     */
     @GetMapping("/export/excel")
-    public ResponseEntity<Resource> exportDataAsExcel() {
-        try {
-            byte[] excelContent = bulkImportService.exportBulkDataAsExcel();
-            
-            // Create temporary file
-            Path tempPath = Files.createTempFile("intern-data-export", ".xlsx");
-            Files.write(tempPath, excelContent);
-            
-            Resource resource = new org.springframework.core.io.FileSystemResource(tempPath.toFile());
-            
-            // Generate filename with current date
-            String today = java.time.LocalDate.now().toString();
-            String filename = "intern-data-export-" + today + ".xlsx";
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-                    
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<StreamingResponseBody> exportDataAsExcel(
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        LocalDateTime watermark = bulkImportService.exportWatermark();
+
+        // Generate filename with current date
+        String today = java.time.LocalDate.now().toString();
+        String filename = "intern-data-export-" + today + ".xlsx";
+
+        StreamingResponseBody body = outputStream -> bulkImportService.exportBulkDataAsExcel(outputStream, since);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(WATERMARK_HEADER, watermark.toString())
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
     }
 }
@@ -42,6 +42,14 @@ public class InternCategoryController {
         return ResponseEntity.ok(categoryService.createCategory(categoryName));
     }
 
+    @PutMapping("/{categoryId}/keywords")
+    public ResponseEntity<InternCategory> updateSpecializationKeywords(
+            @PathVariable Integer categoryId,
+            @RequestBody Map<String, String> payload) {
+        String keywords = payload.get("keywords");
+        return ResponseEntity.ok(categoryService.updateSpecializationKeywords(categoryId, keywords));
+    }
+
     @PutMapping("/{categoryId}/assign-lead/{internId}")
     public ResponseEntity<InternCategory> assignLead(
             @PathVariable Integer categoryId,
@@ -8,6 +8,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -69,25 +70,20 @@ public class ModuleImportController {
     }
 
     @GetMapping("/export/excel/{projectId}")
-    public ResponseEntity<byte[]> exportModulesAndFunctionsExcel(@PathVariable Long projectId) {
-        try {
-            byte[] excelData = moduleImportService.exportModulesAndFunctionsAsExcel(projectId);
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "modules_functions_project_" + projectId + "_" + timestamp + ".xlsx";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(excelData.length);
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelData);
-                
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<StreamingResponseBody> exportModulesAndFunctionsExcel(@PathVariable Long projectId) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String filename = "modules_functions_project_" + projectId + "_" + timestamp + ".xlsx";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", filename);
+
+        StreamingResponseBody body = outputStream ->
+                moduleImportService.exportModulesAndFunctionsAsExcel(projectId, outputStream);
+
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
     }
 
     @GetMapping("/template/csv")
@@ -2,18 +2,17 @@ package com.internsystem.internmanagement.controller;
 
 import com.internsystem.internmanagement.dto.ProjectDTO;
 import com.internsystem.internmanagement.dto.RepoAnalyticsDTO;
-import com.internsystem.internmanagement.entity.AuthUser;
-import com.internsystem.internmanagement.service.AuthenticationService;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
 import com.internsystem.internmanagement.service.AuthorizationService;
 import com.internsystem.internmanagement.service.ProjectService;
 import com.internsystem.internmanagement.service.RepoAnalyticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -26,9 +25,6 @@ public class ProjectController {
     @Autowired
     private RepoAnalyticsService repoAnalyticsService;
 
-    @Autowired
-    private AuthenticationService authenticationService;
-
     @Autowired
     private AuthorizationService authorizationService;
 
@@ -46,14 +42,13 @@ public class ProjectController {
 
     @PostMapping
     public ResponseEntity<ProjectDTO> create(@RequestBody ProjectDTO dto, 
-                                           @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                           @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         // Only admins can create projects (or you can modify this logic as needed)
-        if (currentUser.get().getRole() != AuthUser.Role.ADMIN) {
+        if (!currentUser.isAdmin()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -63,13 +58,12 @@ public class ProjectController {
     @PutMapping("/{id}")
     public ResponseEntity<ProjectDTO> update(@PathVariable Long id, 
                                            @RequestBody ProjectDTO dto,
-                                           @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                           @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        if (!authorizationService.canEditProject(currentUser.get(), id)) {
+        if (!authorizationService.canEditProject(currentUser, id)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -78,13 +72,12 @@ public class ProjectController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id,
-                                     @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                     @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        if (!authorizationService.canEditProject(currentUser.get(), id)) {
+        if (!authorizationService.canEditProject(currentUser, id)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -100,13 +93,12 @@ public class ProjectController {
 
     @GetMapping("/{id}/permissions")
     public ResponseEntity<Boolean> canEdit(@PathVariable Long id,
-                                         @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.ok(false);
         }
 
-        boolean canEdit = authorizationService.canEditProject(currentUser.get(), id);
+        boolean canEdit = authorizationService.canEditProject(currentUser, id);
         return ResponseEntity.ok(canEdit);
     }
 }
\ No newline at end of file
@@ -1,17 +1,16 @@
 package com.internsystem.internmanagement.controller;
 
 import com.internsystem.internmanagement.dto.TeamDTO;
-import com.internsystem.internmanagement.entity.AuthUser;
-import com.internsystem.internmanagement.service.AuthenticationService;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
 import com.internsystem.internmanagement.service.AuthorizationService;
 import com.internsystem.internmanagement.service.TeamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -21,9 +20,6 @@ public class TeamController {
     @Autowired
     private TeamService teamService;
 
-    @Autowired
-    private AuthenticationService authenticationService;
-
     @Autowired
     private AuthorizationService authorizationService;
 
@@ -41,14 +37,13 @@ public class TeamController {
 
     @PostMapping
     public ResponseEntity<TeamDTO> create(@RequestBody TeamDTO dto,
-                                        @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                        @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         // Only admins can create teams (or you can modify this logic as needed)
-        if (currentUser.get().getRole() != AuthUser.Role.ADMIN) {
+        if (!currentUser.isAdmin()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -58,13 +53,12 @@ public class TeamController {
     @PutMapping("/{id}")
     public ResponseEntity<TeamDTO> update(@PathVariable Long id, 
                                         @RequestBody TeamDTO dto,
-                                        @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                        @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        if (!authorizationService.canEditTeam(currentUser.get(), id)) {
+        if (!authorizationService.canEditTeam(currentUser, id)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -73,13 +67,12 @@ public class TeamController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id,
-                                     @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                     @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        if (!authorizationService.canEditTeam(currentUser.get(), id)) {
+        if (!authorizationService.canEditTeam(currentUser, id)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -89,13 +82,12 @@ public class TeamController {
 
     @GetMapping("/{id}/permissions")
     public ResponseEntity<Boolean> canEdit(@PathVariable Long id,
-                                         @RequestHeader("Authorization") String authHeader) {
-        Optional<AuthUser> currentUser = authenticationService.getCurrentUser(authHeader);
-        if (currentUser.isEmpty()) {
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.ok(false);
         }
 
-        boolean canEdit = authorizationService.canEditTeam(currentUser.get(), id);
+        boolean canEdit = authorizationService.canEditTeam(currentUser, id);
         return ResponseEntity.ok(canEdit);
     }
 }
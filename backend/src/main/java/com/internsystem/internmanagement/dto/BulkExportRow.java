@@ -0,0 +1,35 @@
+package com.internsystem.internmanagement.dto;
+
+import com.internsystem.internmanagement.entity.ProjectStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the bulk export read model: an intern joined with one of its team memberships and one of
+ * that team's projects. The membership and project columns are null when there is none.
+ */
+public interface BulkExportRow {
+    Long getInternId();
+    String getInternCode();
+    String getName();
+    String getEmail();
+    String getInstitute();
+    LocalDate getTrainingStartDate();
+    LocalDate getTrainingEndDate();
+    LocalDateTime getInternUpdatedAt();
+
+    Long getMembershipId();
+    String getTeamName();
+    String getTeamLeaderCode();
+    LocalDateTime getTeamUpdatedAt();
+
+    Long getProjectId();
+    String getProjectName();
+    String getProjectDescription();
+    String getProjectManagerCode();
+    ProjectStatus getProjectStatus();
+    LocalDate getProjectStartDate();
+    LocalDate getProjectTargetDate();
+    LocalDateTime getProjectUpdatedAt();
+}
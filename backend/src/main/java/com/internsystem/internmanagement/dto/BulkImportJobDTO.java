@@ -0,0 +1,27 @@
+package com.internsystem.internmanagement.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkImportJobDTO {
+    private String jobId;
+    private String filename;
+    private String status;
+    private String phase;
+    private long rowsProcessed;
+    private Long totalRows;
+    private double rowsPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String checkpointPhase;
+    private Integer checkpointLine;
+    private boolean resumable;
+    private int successCount;
+    private int failedCount;
+    private int totalCount;
+    private List<String> errors;
+}
@@ -0,0 +1,51 @@
+package com.internsystem.internmanagement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a bulk import file would change, computed without writing anything.
+ */
+@Data
+public class BulkImportPreviewDTO {
+    private int rowCount;
+    private int invalidRowCount;
+    private ChangeSummary interns = new ChangeSummary();
+    private ChangeSummary teams = new ChangeSummary();
+    private ChangeSummary projects = new ChangeSummary();
+    private ChangeSummary teamMemberships = new ChangeSummary();
+    private ChangeSummary projectTeams = new ChangeSummary();
+    private List<String> errors = new ArrayList<>();
+
+    public void addError(int lineNumber, String error) {
+        errors.add("Line " + lineNumber + ": " + error);
+    }
+
+    @Data
+    public static class ChangeSummary {
+        // Only the first keys are listed; the counts are always complete
+        private static final int MAX_LISTED_KEYS = 100;
+
+        private int toCreate;
+        private int toUpdate;
+        private int unchanged;
+        private List<String> created = new ArrayList<>();
+        private List<String> updated = new ArrayList<>();
+
+        public void recordCreate(String key) {
+            toCreate++;
+            if (created.size() < MAX_LISTED_KEYS) created.add(key);
+        }
+
+        public void recordUpdate(String key) {
+            toUpdate++;
+            if (updated.size() < MAX_LISTED_KEYS) updated.add(key);
+        }
+
+        public void recordUnchanged() {
+            unchanged++;
+        }
+    }
+}
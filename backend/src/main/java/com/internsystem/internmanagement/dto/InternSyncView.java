@@ -0,0 +1,10 @@
+package com.internsystem.internmanagement.dto;
+
+/**
+ * What the trainee sync needs to know about an existing intern to decide whether to write it.
+ */
+public interface InternSyncView {
+    Long getInternId();
+    String getInternCode();
+    String getSyncHash();
+}
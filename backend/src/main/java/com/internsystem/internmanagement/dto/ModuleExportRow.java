@@ -0,0 +1,24 @@
+package com.internsystem.internmanagement.dto;
+
+import com.internsystem.internmanagement.entity.FunctionStatus;
+import com.internsystem.internmanagement.entity.ModuleStatus;
+
+/**
+ * A project's module joined with one of its functions, as read by the module export and by the module
+ * import to preload the stored state. The function columns are null for a module without functions.
+ */
+public interface ModuleExportRow {
+    Long getModuleId();
+    String getModuleName();
+    String getModuleDescription();
+    Long getOwnerInternId();
+    String getOwnerInternCode();
+    ModuleStatus getModuleStatus();
+
+    Long getFunctionId();
+    String getFunctionName();
+    String getFunctionDescription();
+    Long getDeveloperInternId();
+    String getDeveloperInternCode();
+    FunctionStatus getFunctionStatus();
+}
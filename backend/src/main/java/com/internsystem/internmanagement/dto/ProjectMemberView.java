@@ -0,0 +1,6 @@
+package com.internsystem.internmanagement.dto;
+
+public interface ProjectMemberView {
+    Long getInternId();
+    String getInternCode();
+}
@@ -0,0 +1,6 @@
+package com.internsystem.internmanagement.dto;
+
+public interface TeamMembershipView {
+    Long getTeamId();
+    Long getInternId();
+}
@@ -6,7 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "auth")
+@Table(name = "auth",
+       indexes = @Index(name = "idx_auth_trainee_id", columnList = "trainee_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,5 +1,6 @@
 package com.internsystem.internmanagement.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,7 +14,8 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "interns")
+@Table(name = "interns",
+       indexes = @Index(name = "idx_interns_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,6 +61,11 @@ public class Intern {
     @JoinColumn(name = "category_id")
     private InternCategory category;
 
+    // Content hash of the trainee API record last written to this intern; null once edited locally
+    @JsonIgnore
+    @Column(name = "sync_hash", length = 64)
+    private String syncHash;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -22,6 +22,10 @@ public class InternCategory {
     @Column(name = "category_name", nullable = false, unique = true)
     private String categoryName;
 
+    // Comma-separated, matched case-insensitively against trainee specializations by the trainee sync
+    @Column(name = "specialization_keywords", length = 1000)
+    private String specializationKeywords;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lead_intern_id", referencedColumnName = "intern_id")
     private Intern leadIntern;
@@ -2,12 +2,25 @@ package com.internsystem.internmanagement.repository;
 
 import com.internsystem.internmanagement.entity.AuthUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AuthUserRepository extends JpaRepository<AuthUser, Long> {
     Optional<AuthUser> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT a.id FROM AuthUser a WHERE a.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("SELECT MIN(a.id) FROM AuthUser a WHERE a.traineeId = :traineeId")
+    Optional<Long> findIdByTraineeId(@Param("traineeId") String traineeId);
+
+    @Query("SELECT a.email FROM AuthUser a WHERE a.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -1,14 +1,22 @@
 package com.internsystem.internmanagement.repository;
 
+import com.internsystem.internmanagement.dto.InternSyncView;
 import com.internsystem.internmanagement.entity.Intern;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List; // <-- This is the line that was missing.
 
 public interface InternRepository extends JpaRepository<Intern, Long> {
     Optional<Intern> findByInternCode(String internCode);
+    boolean existsByInternCode(String internCode);
+    List<Intern> findByInternCodeIn(Collection<String> internCodes);
     // This is the new method we are adding.
     // Spring Boot is smart enough to automatically create the database query
     // just from the name of the method. "findByTrainingEndDateBetween" tells it
@@ -16,4 +24,17 @@ public interface InternRepository extends JpaRepository<Intern, Long> {
     List<Intern> findByTrainingEndDateBetweenAndEndDateAlertSentFalse(LocalDate startDate, LocalDate endDate);
 
     List<Intern> findByCategory_CategoryId(Integer categoryId);
+
+    @Query("SELECT i.internId FROM Intern i WHERE i.updatedAt > :since")
+    List<Long> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT i.internId AS internId, i.internCode AS internCode, i.syncHash AS syncHash FROM Intern i")
+    List<InternSyncView> findAllSyncViews();
+
+    /**
+     * Makes the next trainee sync rewrite every synced intern, e.g. after the category rules changed.
+     */
+    @Modifying
+    @Query("UPDATE Intern i SET i.syncHash = NULL WHERE i.syncHash IS NOT NULL")
+    int clearSyncHashes();
 }
@@ -1,12 +1,38 @@
 package com.internsystem.internmanagement.repository;
 
+import com.internsystem.internmanagement.dto.ModuleExportRow;
+import com.internsystem.internmanagement.dto.ModuleIdView;
 import com.internsystem.internmanagement.entity.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ModuleRepository extends JpaRepository<Module, Long> {
     List<Module> findByProjectProjectId(Long projectId);
     Optional<Module> findByModuleNameAndProjectProjectId(String moduleName, Long projectId);
-}
\ No newline at end of file
+
+    @Query("SELECT m.moduleId AS moduleId, m.moduleName AS moduleName FROM Module m " +
+           "WHERE m.project.projectId = :projectId AND m.moduleName IN :moduleNames")
+    List<ModuleIdView> findIdsByProjectIdAndNames(@Param("projectId") Long projectId,
+                                                  @Param("moduleNames") Collection<String> moduleNames);
+
+    /**
+     * Every module of the project left-joined with its functions and the owner/developer interns, in one
+     * query, ordered by module and then function.
+     */
+    @Query("SELECT m.moduleId AS moduleId, m.moduleName AS moduleName, m.description AS moduleDescription, " +
+           "o.internId AS ownerInternId, o.internCode AS ownerInternCode, m.status AS moduleStatus, " +
+           "f.functionId AS functionId, f.functionName AS functionName, f.description AS functionDescription, " +
+           "d.internId AS developerInternId, d.internCode AS developerInternCode, f.status AS functionStatus " +
+           "FROM Module m " +
+           "LEFT JOIN m.ownerIntern o " +
+           "LEFT JOIN Function f ON f.module = m " +
+           "LEFT JOIN f.developerIntern d " +
+           "WHERE m.project.projectId = :projectId " +
+           "ORDER BY m.moduleId, f.functionId")
+    List<ModuleExportRow> findExportRowsByProjectId(@Param("projectId") Long projectId);
+}
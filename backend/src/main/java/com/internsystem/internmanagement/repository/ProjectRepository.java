@@ -1,18 +1,21 @@
 package com.internsystem.internmanagement.repository;
 
 import com.internsystem.internmanagement.dto.InternProjectView;
-import com.internsystem.internmanagement.entity.AuthUser;
 import com.internsystem.internmanagement.entity.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     Optional<Project> findByProjectName(String projectName);
-    boolean existsByProjectManagerAuthUser(AuthUser projectManagerAuthUser);
+    List<Project> findByProjectNameIn(Collection<String> projectNames);
+
+    @Query("SELECT p.projectId FROM Project p WHERE p.projectManagerAuthUser.id = :authUserId")
+    List<Long> findIdsByProjectManagerAuthUserId(@Param("authUserId") Long authUserId);
     
     @Query("SELECT COUNT(p) FROM Project p WHERE p.repoHost IS NULL OR p.repoName IS NULL OR p.repoAccessToken IS NULL")
     Long countProjectsMissingRepositoryInfo();
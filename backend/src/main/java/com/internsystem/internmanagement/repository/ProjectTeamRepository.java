@@ -1,8 +1,12 @@
 package com.internsystem.internmanagement.repository;
 
+import com.internsystem.internmanagement.dto.ProjectTeamLinkView;
 import com.internsystem.internmanagement.entity.ProjectTeam;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +14,10 @@ public interface ProjectTeamRepository extends JpaRepository<ProjectTeam, Long>
     List<ProjectTeam> findByProjectProjectId(Long projectId);
     List<ProjectTeam> findByTeamTeamId(Long teamId);
     Optional<ProjectTeam> findByProjectProjectIdAndTeamTeamId(Long projectId, Long teamId);
+
+    @Query("SELECT pt.project.projectId AS projectId, pt.team.teamId AS teamId " +
+           "FROM ProjectTeam pt WHERE pt.project.projectId IN :projectIds")
+    List<ProjectTeamLinkView> findLinksByProjectIds(@Param("projectIds") Collection<Long> projectIds);
     void deleteByProjectProjectId(Long projectId);
     void deleteByTeamTeamId(Long teamId);
 }
@@ -1,14 +1,36 @@
 package com.internsystem.internmanagement.repository;
 
+import com.internsystem.internmanagement.dto.ProjectMemberView;
+import com.internsystem.internmanagement.dto.TeamMembershipView;
 import com.internsystem.internmanagement.entity.TeamMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     boolean existsByTeamTeamIdAndInternInternId(Long teamId, Long internId);
     List<TeamMember> findByTeamTeamId(Long teamId);
     List<TeamMember> findByInternInternId(Long internId);
+
+    @Query("SELECT tm.team.teamId AS teamId, tm.intern.internId AS internId " +
+           "FROM TeamMember tm WHERE tm.team.teamId IN :teamIds")
+    List<TeamMembershipView> findMembershipsByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
+    @Query("SELECT DISTINCT i.internId AS internId, i.internCode AS internCode " +
+           "FROM TeamMember tm JOIN tm.intern i, ProjectTeam pt " +
+           "WHERE pt.team = tm.team AND pt.project.projectId = :projectId")
+    List<ProjectMemberView> findMembersOfProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT DISTINCT tm.intern.internId FROM TeamMember tm WHERE tm.team.updatedAt > :since")
+    List<Long> findInternIdsOfTeamsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT DISTINCT tm.intern.internId FROM TeamMember tm, ProjectTeam pt " +
+           "WHERE pt.team = tm.team AND pt.project.updatedAt > :since")
+    List<Long> findInternIdsOfProjectsUpdatedAfter(@Param("since") LocalDateTime since);
     
     @Transactional
     void deleteByTeamTeamIdAndInternInternId(Long teamId, Long internId);
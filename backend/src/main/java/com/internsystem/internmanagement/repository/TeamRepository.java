@@ -1,12 +1,18 @@
 package com.internsystem.internmanagement.repository;
 
-import com.internsystem.internmanagement.entity.AuthUser;
 import com.internsystem.internmanagement.entity.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
     Optional<Team> findByTeamName(String teamName);
-    boolean existsByTeamLeaderAuthUser(AuthUser teamLeaderAuthUser);
+    List<Team> findByTeamNameIn(Collection<String> teamNames);
+
+    @Query("SELECT t.teamId FROM Team t WHERE t.teamLeaderAuthUser.id = :authUserId")
+    List<Long> findIdsByTeamLeaderAuthUserId(@Param("authUserId") Long authUserId);
 }
@@ -0,0 +1,30 @@
+package com.internsystem.internmanagement.security;
+
+import com.internsystem.internmanagement.entity.AuthUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * The user a request is authenticated as, read from the claims of its JWT. Set as the principal by
+ * {@link JwtAuthenticationFilter}; controllers receive it with {@code @AuthenticationPrincipal}.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    private final String email;
+    private final AuthUser.Role role;
+    private final String traineeId;
+
+    public boolean isAdmin() {
+        return role == AuthUser.Role.ADMIN;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
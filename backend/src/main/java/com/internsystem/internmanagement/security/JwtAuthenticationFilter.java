@@ -1,48 +1,47 @@
 package com.internsystem.internmanagement.security;
 
-import com.internsystem.internmanagement.service.JwtService;
+import com.internsystem.internmanagement.service.JwtTokenVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
-
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates requests that carry a valid bearer token. The token is verified and parsed once (or
+ * found among the recently verified ones, see {@link JwtTokenVerifier}), and the user in its claims
+ * becomes the {@link AuthenticatedUser} principal, so no request needs to load its AuthUser from the
+ * database.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtService jwtService;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
             throws ServletException, IOException {
         
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                email = jwtService.getEmailFromToken(token);
-            } catch (Exception e) {
-                // Invalid token - let it pass through, Spring Security will handle it
-            }
-        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtService.validateToken(token)) {
-                // Create authentication token
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList());
+        // Invalid tokens are let through unauthenticated, Spring Security will handle them
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<AuthenticatedUser> user = jwtTokenVerifier.verify(authHeader.substring(7));
+            if (user.isPresent()) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        user.get(), null, List.of(new SimpleGrantedAuthority("ROLE_" + user.get().getRole())));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -9,6 +9,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,6 +23,10 @@ public class AuthRoleService {
     
     private final AuthUserRepository authUserRepository;
     private final InternRepository internRepository;
+    private final ImportBatchWriter importBatchWriter;
+    private final InternAuthUserLinkService internAuthUserLinkService;
+
+    private static final int IN_CLAUSE_LIMIT = 1000;
     
     /**
      * Creates an AuthUser record for an intern if it doesn't exist
@@ -50,12 +59,57 @@ public class AuthRoleService {
             newAuthUser.setTraineeId(intern.getInternCode()); // Use intern code as trainee ID
             
             authUserRepository.save(newAuthUser);
+            internAuthUserLinkService.invalidateAll();
             log.info("Created new AuthUser record for intern {} (ID: {})", intern.getName(), internId);
         } else {
             log.debug("AuthUser already exists for intern {} (ID: {})", intern.getName(), internId);
         }
     }
     
+    /**
+     * Bulk version of {@link #ensureAuthUserExists} for interns that were just created. All emails are
+     * checked with one query (per 1000) and the missing AuthUser records are inserted as one JDBC batch.
+     */
+    @Transactional
+    public void ensureAuthUsersExist(Collection<Intern> interns) {
+        // Keyed case-insensitively, like the unique email index in MySQL
+        Map<String, Intern> internsByEmail = new LinkedHashMap<>();
+        for (Intern intern : interns) {
+            if (intern.getEmail() == null || intern.getEmail().isEmpty()) {
+                log.warn("Intern {} (ID: {}) has no email, cannot create AuthUser", intern.getName(), intern.getInternId());
+                continue;
+            }
+            internsByEmail.putIfAbsent(intern.getEmail().toLowerCase(), intern);
+        }
+        if (internsByEmail.isEmpty()) {
+            return;
+        }
+
+        List<String> emails = internsByEmail.values().stream().map(Intern::getEmail).toList();
+        for (int from = 0; from < emails.size(); from += IN_CLAUSE_LIMIT) {
+            List<String> chunk = emails.subList(from, Math.min(from + IN_CLAUSE_LIMIT, emails.size()));
+            for (String existingEmail : authUserRepository.findExistingEmails(chunk)) {
+                internsByEmail.remove(existingEmail.toLowerCase());
+            }
+        }
+
+        List<AuthUser> newAuthUsers = new ArrayList<>(internsByEmail.size());
+        for (Intern intern : internsByEmail.values()) {
+            AuthUser newAuthUser = new AuthUser();
+            newAuthUser.setEmail(intern.getEmail());
+            newAuthUser.setName(intern.getName());
+            newAuthUser.setRole(AuthUser.Role.INTERN);
+            newAuthUser.setPassword(""); // No password for Google login users
+            newAuthUser.setTraineeId(intern.getInternCode()); // Use intern code as trainee ID
+            newAuthUsers.add(newAuthUser);
+        }
+        importBatchWriter.insertAuthUsers(newAuthUsers);
+        if (!newAuthUsers.isEmpty()) {
+            internAuthUserLinkService.invalidateAll();
+            log.info("Created {} AuthUser records for new interns", newAuthUsers.size());
+        }
+    }
+
     /**
      * Creates an AuthUser record for an intern by intern code if it doesn't exist
      */
@@ -9,6 +9,7 @@ import com.internsystem.internmanagement.repository.AuthUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -18,6 +19,7 @@ public class AuthService {
     private final AuthUserRepository authUserRepository;
     private final JwtService jwtService;
     private final GoogleOAuthService googleOAuthService;
+    private final InternAuthUserLinkService internAuthUserLinkService;
     
     public AuthResponse login(LoginRequest loginRequest) {
         Optional<AuthUser> userOpt = authUserRepository.findByEmail(loginRequest.getEmail());
@@ -82,10 +84,15 @@ public class AuthService {
             newUser.setTraineeId(validationResult.getTraineeId()); // Store trainee ID
             
             userOpt = Optional.of(authUserRepository.save(newUser));
+            // A new user can be the AuthUser of an existing intern
+            internAuthUserLinkService.invalidateAll();
         } else {
             // Update existing user with latest trainee data, but preserve role if it's higher than INTERN
             AuthUser existingUser = userOpt.get();
             existingUser.setName(validationResult.getTraineeName());
+            if (!Objects.equals(existingUser.getTraineeId(), validationResult.getTraineeId())) {
+                internAuthUserLinkService.invalidateAll();
+            }
             existingUser.setTraineeId(validationResult.getTraineeId());
             
         // Always set role to INTERN for Google login users (admins use credential login)
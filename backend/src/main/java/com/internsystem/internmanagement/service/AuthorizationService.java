@@ -1,15 +1,25 @@
 package com.internsystem.internmanagement.service;
 
-import com.internsystem.internmanagement.entity.AuthUser;
-import com.internsystem.internmanagement.entity.Project;
-import com.internsystem.internmanagement.entity.Team;
 import com.internsystem.internmanagement.repository.ProjectRepository;
 import com.internsystem.internmanagement.repository.TeamRepository;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Decides what a user may edit: admins everything, other users the projects they manage and the teams
+ * they lead. The IDs of those projects and teams are loaded per user with two ID-only queries and kept
+ * in a bounded LRU cache, so a permission check is a set lookup. The cache entry of a user is dropped
+ * when a project manager or team leader changes to or from that user.
+ */
 @Service
 public class AuthorizationService {
 
@@ -19,77 +29,118 @@ public class AuthorizationService {
     @Autowired
     private TeamRepository teamRepository;
 
-    /**
-     * Check if a user can edit a specific project
-     */
-    public boolean canEditProject(AuthUser user, Long projectId) {
-        System.out.println("AuthorizationService.canEditProject: user=" + user.getId() + ", projectId=" + projectId);
-        
-        if (user.getRole() == AuthUser.Role.ADMIN) {
-            System.out.println("User is ADMIN, returning true");
-            return true;
-        }
+    @Value("${auth.permission-cache.max-entries:5000}")
+    private int maxEntries;
 
-        Optional<Project> projectOpt = projectRepository.findById(projectId);
-        if (projectOpt.isEmpty()) {
-            System.out.println("Project not found, returning false");
-            return false;
+    private final Map<Long, Permissions> permissionsByAuthUserId = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Permissions> eldest) {
+            return size() > maxEntries;
         }
+    };
+    // Bumped on every invalidation, so permissions read before a change are not cached after it
+    private final AtomicLong generation = new AtomicLong();
 
-        Project project = projectOpt.get();
-        System.out.println("Project found: " + project.getProjectName());
-        System.out.println("Project manager AuthUser: " + (project.getProjectManagerAuthUser() != null ? project.getProjectManagerAuthUser().getId() : "null"));
-        
-        boolean canEdit = project.getProjectManagerAuthUser() != null && 
-               project.getProjectManagerAuthUser().getId().equals(user.getId());
-        System.out.println("Can edit result: " + canEdit);
-        return canEdit;
+    /**
+     * Check if a user can edit a specific project
+     */
+    public boolean canEditProject(AuthenticatedUser user, Long projectId) {
+        return user.isAdmin() || permissionsOf(user).managedProjectIds.contains(projectId);
     }
 
     /**
      * Check if a user can edit a specific team
      */
-    public boolean canEditTeam(AuthUser user, Long teamId) {
-        System.out.println("AuthorizationService.canEditTeam: user=" + user.getId() + ", teamId=" + teamId);
-        
-        if (user.getRole() == AuthUser.Role.ADMIN) {
-            System.out.println("User is ADMIN, returning true");
-            return true;
-        }
+    public boolean canEditTeam(AuthenticatedUser user, Long teamId) {
+        return user.isAdmin() || permissionsOf(user).ledTeamIds.contains(teamId);
+    }
 
-        Optional<Team> teamOpt = teamRepository.findById(teamId);
-        if (teamOpt.isEmpty()) {
-            System.out.println("Team not found, returning false");
-            return false;
-        }
+    /**
+     * Check if a user is a project manager for any project
+     */
+    public boolean isProjectManager(AuthenticatedUser user) {
+        return user.isAdmin() || !permissionsOf(user).managedProjectIds.isEmpty();
+    }
 
-        Team team = teamOpt.get();
-        System.out.println("Team found: " + team.getTeamName());
-        System.out.println("Team leader AuthUser: " + (team.getTeamLeaderAuthUser() != null ? team.getTeamLeaderAuthUser().getId() : "null"));
-        
-        boolean canEdit = team.getTeamLeaderAuthUser() != null && 
-               team.getTeamLeaderAuthUser().getId().equals(user.getId());
-        System.out.println("Can edit result: " + canEdit);
-        return canEdit;
+    /**
+     * Check if a user is a team leader for any team
+     */
+    public boolean isTeamLeader(AuthenticatedUser user) {
+        return user.isAdmin() || !permissionsOf(user).ledTeamIds.isEmpty();
     }
 
     /**
-     * Check if a user is a project manager for any project
+     * Drops the cached permissions of a user who became or stopped being a project manager or team
+     * leader. Does nothing for a null ID, so callers can pass the old and new AuthUser as they are.
      */
-    public boolean isProjectManager(AuthUser user) {
-        if (user.getRole() == AuthUser.Role.ADMIN) {
-            return true;
+    public void invalidate(Long authUserId) {
+        if (authUserId == null) {
+            return;
         }
-        return projectRepository.existsByProjectManagerAuthUser(user);
+        runNowAndAfterCompletion(() -> {
+            synchronized (permissionsByAuthUserId) {
+                generation.incrementAndGet();
+                permissionsByAuthUserId.remove(authUserId);
+            }
+        });
     }
 
     /**
-     * Check if a user is a team leader for any team
+     * Drops all cached permissions, e.g. after a project or team was deleted.
+     */
+    public void invalidateAll() {
+        runNowAndAfterCompletion(() -> {
+            synchronized (permissionsByAuthUserId) {
+                generation.incrementAndGet();
+                permissionsByAuthUserId.clear();
+            }
+        });
+    }
+
+    /**
+     * Runs the eviction right away, so the current transaction sees its own changes, and again once it
+     * completes, so permissions other threads cached from the data before the commit (or this
+     * transaction cached from rolled back data) are dropped too.
      */
-    public boolean isTeamLeader(AuthUser user) {
-        if (user.getRole() == AuthUser.Role.ADMIN) {
-            return true;
+    private void runNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private Permissions permissionsOf(AuthenticatedUser user) {
+        synchronized (permissionsByAuthUserId) {
+            Permissions cached = permissionsByAuthUserId.get(user.getId());
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long readGeneration = generation.get();
+        Permissions loaded = new Permissions(
+                Set.copyOf(projectRepository.findIdsByProjectManagerAuthUserId(user.getId())),
+                Set.copyOf(teamRepository.findIdsByTeamLeaderAuthUserId(user.getId())));
+        synchronized (permissionsByAuthUserId) {
+            if (generation.get() == readGeneration) {
+                permissionsByAuthUserId.put(user.getId(), loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static class Permissions {
+        private final Set<Long> managedProjectIds;
+        private final Set<Long> ledTeamIds;
+
+        Permissions(Set<Long> managedProjectIds, Set<Long> ledTeamIds) {
+            this.managedProjectIds = managedProjectIds;
+            this.ledTeamIds = ledTeamIds;
         }
-        return teamRepository.existsByTeamLeaderAuthUser(user);
     }
 }
@@ -0,0 +1,140 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.BulkExportRow;
+import com.internsystem.internmanagement.entity.ProjectStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reads the bulk export read model as a forward-only stream: every intern left-joined with its team
+ * memberships and their teams' projects, in one query. Rows of the same intern are adjacent,
+ * memberships and projects in creation order. Streams must be closed; each holds a connection until then.
+ *
+ * The export queries run on their own small, read-only pool to the same database. Its connections set
+ * useCursorFetch, so MySQL reads a result in fetch-size steps through a server-side cursor instead of
+ * buffering all of it in the heap. The option also turns every statement into a server-side prepared
+ * statement (an extra round trip each), which is why the application pool does not set it. The pool
+ * opens connections only while exports run and closes them once idle.
+ */
+@Component
+public class BulkExportReader implements DisposableBean {
+
+    private static final String SELECT =
+            "SELECT i.intern_id, i.intern_code, i.name, i.email, i.institute, " +
+            "i.training_start_date, i.training_end_date, i.updated_at AS intern_updated_at, " +
+            "tm.id AS membership_id, t.team_name, tl.intern_code AS team_leader_code, " +
+            "t.updated_at AS team_updated_at, " +
+            "p.project_id, p.project_name, p.description AS project_description, " +
+            "pm.intern_code AS project_manager_code, p.status AS project_status, " +
+            "p.start_date AS project_start_date, p.target_date AS project_target_date, " +
+            "p.updated_at AS project_updated_at " +
+            "FROM interns i " +
+            "LEFT JOIN team_members tm ON tm.intern_id = i.intern_id " +
+            "LEFT JOIN teams t ON t.team_id = tm.team_id " +
+            "LEFT JOIN interns tl ON tl.intern_id = t.team_leader_id " +
+            "LEFT JOIN project_teams pt ON pt.team_id = t.team_id " +
+            "LEFT JOIN projects p ON p.project_id = pt.project_id " +
+            "LEFT JOIN interns pm ON pm.intern_id = p.project_manager_id ";
+    private static final String ORDER_BY = "ORDER BY i.intern_id, tm.id, pt.id";
+
+    private final HikariDataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BulkExportReader(DataSourceProperties dataSourceProperties,
+                            @Value("${bulk-export.datasource.maximum-pool-size:4}") int maximumPoolSize,
+                            @Value("${bulk-export.fetch-size:500}") int fetchSize) {
+        dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("export");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        dataSource.addDataSourceProperty("useCursorFetch", "true");
+
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    public Stream<BulkExportRow> streamRows() {
+        return jdbcTemplate.queryForStream(SELECT + ORDER_BY, Map.of(), (rs, rowNum) -> new JdbcBulkExportRow(rs));
+    }
+
+    /**
+     * Same as {@link #streamRows()}, limited to the given interns.
+     */
+    public Stream<BulkExportRow> streamRows(Collection<Long> internIds) {
+        return jdbcTemplate.queryForStream(SELECT + "WHERE i.intern_id IN (:internIds) " + ORDER_BY,
+                Map.of("internIds", internIds), (rs, rowNum) -> new JdbcBulkExportRow(rs));
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+
+    @Getter
+    private static class JdbcBulkExportRow implements BulkExportRow {
+        private final Long internId;
+        private final String internCode;
+        private final String name;
+        private final String email;
+        private final String institute;
+        private final LocalDate trainingStartDate;
+        private final LocalDate trainingEndDate;
+        private final LocalDateTime internUpdatedAt;
+
+        private final Long membershipId;
+        private final String teamName;
+        private final String teamLeaderCode;
+        private final LocalDateTime teamUpdatedAt;
+
+        private final Long projectId;
+        private final String projectName;
+        private final String projectDescription;
+        private final String projectManagerCode;
+        private final ProjectStatus projectStatus;
+        private final LocalDate projectStartDate;
+        private final LocalDate projectTargetDate;
+        private final LocalDateTime projectUpdatedAt;
+
+        JdbcBulkExportRow(ResultSet rs) throws SQLException {
+            internId = rs.getObject("intern_id", Long.class);
+            internCode = rs.getString("intern_code");
+            name = rs.getString("name");
+            email = rs.getString("email");
+            institute = rs.getString("institute");
+            trainingStartDate = rs.getObject("training_start_date", LocalDate.class);
+            trainingEndDate = rs.getObject("training_end_date", LocalDate.class);
+            internUpdatedAt = rs.getObject("intern_updated_at", LocalDateTime.class);
+
+            membershipId = rs.getObject("membership_id", Long.class);
+            teamName = rs.getString("team_name");
+            teamLeaderCode = rs.getString("team_leader_code");
+            teamUpdatedAt = rs.getObject("team_updated_at", LocalDateTime.class);
+
+            projectId = rs.getObject("project_id", Long.class);
+            projectName = rs.getString("project_name");
+            projectDescription = rs.getString("project_description");
+            projectManagerCode = rs.getString("project_manager_code");
+            String status = rs.getString("project_status");
+            projectStatus = status != null ? ProjectStatus.valueOf(status) : null;
+            projectStartDate = rs.getObject("project_start_date", LocalDate.class);
+            projectTargetDate = rs.getObject("project_target_date", LocalDate.class);
+            projectUpdatedAt = rs.getObject("project_updated_at", LocalDateTime.class);
+        }
+    }
+}
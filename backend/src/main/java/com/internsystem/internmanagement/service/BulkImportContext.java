@@ -0,0 +1,133 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.entity.Project;
+import com.internsystem.internmanagement.entity.ProjectTeam;
+import com.internsystem.internmanagement.entity.Team;
+import com.internsystem.internmanagement.entity.TeamMember;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory view of the interns, teams, projects, memberships and project-team links referenced by
+ * one bulk import file. It is filled with a few set-based queries before the import phases run and
+ * kept up to date as the phases create entities, so rows resolve against hash maps instead of
+ * issuing their own lookups.
+ *
+ * New interns, teams, projects, memberships and project-team links are queued here until the next
+ * batch write. A queued team or project is already returned by name, but has no ID until it is written,
+ * so the leader membership of a new team and the team links of a new project wait for that write.
+ */
+public class BulkImportContext {
+
+    private final Map<String, Intern> internsByCode = new HashMap<>();
+    private final Map<String, Team> teamsByName = new HashMap<>();
+    private final Map<String, Project> projectsByName = new HashMap<>();
+    private final Map<Long, Set<Long>> internIdsByTeamId = new HashMap<>();
+    private final Map<Long, Set<Long>> teamIdsByProjectId = new HashMap<>();
+    private final List<Intern> pendingInterns = new ArrayList<>();
+    private final List<Team> pendingTeams = new ArrayList<>();
+    private final List<Project> pendingProjects = new ArrayList<>();
+    private final Map<String, List<Team>> pendingTeamsByProjectName = new LinkedHashMap<>();
+    private final List<TeamMember> pendingTeamMembers = new ArrayList<>();
+    private final List<ProjectTeam> pendingProjectTeams = new ArrayList<>();
+
+    public Intern getIntern(String internCode) {
+        return internsByCode.get(internCode);
+    }
+
+    public void putIntern(Intern intern) {
+        internsByCode.put(intern.getInternCode(), intern);
+    }
+
+    public Team getTeam(String teamName) {
+        return teamsByName.get(teamName);
+    }
+
+    public void putTeam(Team team) {
+        teamsByName.put(team.getTeamName(), team);
+    }
+
+    public Project getProject(String projectName) {
+        return projectsByName.get(projectName);
+    }
+
+    public void putProject(Project project) {
+        projectsByName.put(project.getProjectName(), project);
+    }
+
+    public boolean isTeamMember(Long teamId, Long internId) {
+        return internIdsByTeamId.getOrDefault(teamId, Set.of()).contains(internId);
+    }
+
+    public void addTeamMember(Long teamId, Long internId) {
+        internIdsByTeamId.computeIfAbsent(teamId, k -> new HashSet<>()).add(internId);
+    }
+
+    public boolean isTeamAssignedToProject(Long projectId, Long teamId) {
+        return teamIdsByProjectId.getOrDefault(projectId, Set.of()).contains(teamId);
+    }
+
+    public void addProjectTeam(Long projectId, Long teamId) {
+        teamIdsByProjectId.computeIfAbsent(projectId, k -> new HashSet<>()).add(teamId);
+    }
+
+    public List<Intern> getPendingInterns() {
+        return pendingInterns;
+    }
+
+    public List<Team> getPendingTeams() {
+        return pendingTeams;
+    }
+
+    public List<Project> getPendingProjects() {
+        return pendingProjects;
+    }
+
+    /**
+     * Teams to link to a queued project once it has an ID, keyed by project name. May repeat a team;
+     * the link is only queued once.
+     */
+    public Map<String, List<Team>> getPendingTeamsByProjectName() {
+        return pendingTeamsByProjectName;
+    }
+
+    public List<TeamMember> getPendingTeamMembers() {
+        return pendingTeamMembers;
+    }
+
+    public List<ProjectTeam> getPendingProjectTeams() {
+        return pendingProjectTeams;
+    }
+
+    /**
+     * Keys referenced by an import file, collected in a cheap first pass over the rows.
+     */
+    public static class Keys {
+        private final Set<String> internCodes = new HashSet<>();
+        private final Set<String> teamNames = new HashSet<>();
+        private final Set<String> projectNames = new HashSet<>();
+
+        public void addInternCode(String internCode) {
+            if (!internCode.isEmpty()) internCodes.add(internCode);
+        }
+
+        public void addTeamName(String teamName) {
+            if (!teamName.isEmpty()) teamNames.add(teamName);
+        }
+
+        public void addProjectName(String projectName) {
+            if (!projectName.isEmpty()) projectNames.add(projectName);
+        }
+
+        public Set<String> getInternCodes() { return internCodes; }
+        public Set<String> getTeamNames() { return teamNames; }
+        public Set<String> getProjectNames() { return projectNames; }
+    }
+}
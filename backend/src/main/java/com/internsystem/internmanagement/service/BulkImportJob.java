@@ -0,0 +1,149 @@
+package com.internsystem.internmanagement.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one asynchronous bulk import. Written by the worker thread and read by status requests,
+ * so every field is either final, volatile or atomic.
+ */
+public class BulkImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    /**
+     * Last committed row of an import phase. Rows up to here are skipped when the job is resumed.
+     */
+    public static class Checkpoint {
+        private final String phase;
+        private final int lastLineNumber;
+
+        public Checkpoint(String phase, int lastLineNumber) {
+            this.phase = phase;
+            this.lastLineNumber = lastLineNumber;
+        }
+
+        public String getPhase() { return phase; }
+        public int getLastLineNumber() { return lastLineNumber; }
+    }
+
+    private final String jobId;
+    private final String filename;
+    private final Path importFile;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final BulkImportService.BulkImportResult result = new BulkImportService.BulkImportResult();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong rowsHandled = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String phase = Status.QUEUED.name();
+    private volatile long totalRows = -1;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile Checkpoint checkpoint;
+
+    public BulkImportJob(String jobId, String filename, Path importFile) {
+        this.jobId = jobId;
+        this.filename = filename;
+        this.importFile = importFile;
+    }
+
+    void markRunning() {
+        rowsHandled.set(0);
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+    }
+
+    void markFinished(Status finalStatus) {
+        finishedAt = LocalDateTime.now();
+        finishedNanos = System.nanoTime();
+        status = finalStatus;
+        phase = finalStatus.name();
+    }
+
+    /**
+     * Puts a failed or cancelled job back in the queue; the next run continues after the checkpoint.
+     */
+    void markResumed() {
+        cancelRequested = false;
+        finishedAt = null;
+        status = Status.QUEUED;
+        phase = Status.QUEUED.name();
+    }
+
+    /**
+     * Starts a new pass over the file; {@code rowsProcessed} counts rows of the current phase.
+     */
+    public void startPhase(String phase) {
+        this.phase = phase;
+        rowsProcessed.set(0);
+    }
+
+    public void rowProcessed() {
+        rowsProcessed.incrementAndGet();
+        rowsHandled.incrementAndGet();
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * Called between rows by the worker; aborts the import once a cancel has been requested.
+     */
+    public void checkCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Import cancelled");
+        }
+    }
+
+    /**
+     * Rows handled per second over all passes since the job started running.
+     */
+    public double getRowsPerSecond() {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        double seconds = (end - startedNanos) / 1_000_000_000.0;
+        return seconds > 0 ? rowsHandled.get() / seconds : 0;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public boolean isResumable() {
+        return (status == Status.FAILED || status == Status.CANCELLED) && checkpoint != null;
+    }
+
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public String getJobId() { return jobId; }
+    public String getFilename() { return filename; }
+    public Path getImportFile() { return importFile; }
+    public Checkpoint getCheckpoint() { return checkpoint; }
+    public Status getStatus() { return status; }
+    public String getPhase() { return phase; }
+    public long getRowsProcessed() { return rowsProcessed.get(); }
+    public long getTotalRows() { return totalRows; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public BulkImportService.BulkImportResult getResult() { return result; }
+}
@@ -0,0 +1,186 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.BulkImportJobDTO;
+import com.internsystem.internmanagement.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs bulk imports as background jobs. The upload is copied to a temp file so the request can
+ * return immediately; the bounded {@code bulkImportExecutor} queues jobs beyond its pool size.
+ */
+@Service
+@Slf4j
+public class BulkImportJobService {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    @Qualifier("bulkImportExecutor")
+    private ThreadPoolTaskExecutor bulkImportExecutor;
+
+    @Value("${bulk-import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, BulkImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @throws TaskRejectedException when the import queue is full
+     */
+    public BulkImportJobDTO submit(MultipartFile file) throws IOException {
+        String filename = file.getOriginalFilename();
+        Path tempFile = Files.createTempFile("bulk-import-", filename != null && filename.contains(".")
+                ? filename.substring(filename.lastIndexOf('.')) : ".tmp");
+        file.transferTo(tempFile);
+
+        BulkImportJob job = new BulkImportJob(UUID.randomUUID().toString(), filename, tempFile);
+        jobs.put(job.getJobId(), job);
+        try {
+            bulkImportExecutor.execute(() -> runJob(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getJobId());
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return toDTO(job);
+    }
+
+    public BulkImportJobDTO getJob(String jobId) {
+        return toDTO(findJob(jobId));
+    }
+
+    /**
+     * Requests cancellation. A queued job never starts; a running job stops at the next row, rolls back
+     * its current chunk and can be resumed from its checkpoint.
+     */
+    public BulkImportJobDTO cancelJob(String jobId) {
+        BulkImportJob job = findJob(jobId);
+        job.requestCancel();
+        return toDTO(job);
+    }
+
+    /**
+     * Re-queues a failed or cancelled job. Rows committed before its checkpoint are not imported again.
+     *
+     * @throws IllegalStateException when the job has no committed chunk to resume from or is still active
+     */
+    public BulkImportJobDTO resumeJob(String jobId) {
+        BulkImportJob job = findJob(jobId);
+        synchronized (job) {
+            if (!job.isResumable()) {
+                throw new IllegalStateException("Import job " + jobId + " cannot be resumed");
+            }
+            job.markResumed();
+        }
+        try {
+            bulkImportExecutor.execute(() -> runJob(job));
+        } catch (TaskRejectedException e) {
+            job.markFinished(BulkImportJob.Status.FAILED);
+            throw e;
+        }
+        return toDTO(job);
+    }
+
+    private BulkImportJob findJob(String jobId) {
+        BulkImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private void runJob(BulkImportJob job) {
+        try {
+            if (job.isCancelRequested()) {
+                job.markFinished(BulkImportJob.Status.CANCELLED);
+                return;
+            }
+            job.markRunning();
+            bulkImportService.importBulkData(job.getFilename(), new FileSystemResource(job.getImportFile()), job);
+            job.markFinished(BulkImportJob.Status.COMPLETED);
+        } catch (CancellationException e) {
+            job.markFinished(BulkImportJob.Status.CANCELLED);
+        } catch (Exception e) {
+            log.error("Bulk import job {} failed", job.getJobId(), e);
+            job.getResult().addError(0, "Import failed: " + e.getMessage());
+            job.markFinished(BulkImportJob.Status.FAILED);
+        } finally {
+            // The file is kept while the job can still be resumed
+            if (!job.isResumable()) {
+                deleteImportFile(job);
+            }
+        }
+    }
+
+    private void deleteImportFile(BulkImportJob job) {
+        try {
+            Files.deleteIfExists(job.getImportFile());
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", job.getImportFile(), e);
+        }
+    }
+
+    /**
+     * Forgets finished jobs, and their retained files, once clients have had time to read their final status.
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.isFinished() && job.getFinishedAt().isBefore(cutoff)) {
+                deleteImportFile(job);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private BulkImportJobDTO toDTO(BulkImportJob job) {
+        BulkImportJobDTO dto = new BulkImportJobDTO();
+        dto.setJobId(job.getJobId());
+        dto.setFilename(job.getFilename());
+        dto.setStatus(job.getStatus().name());
+        dto.setPhase(job.getPhase());
+        dto.setRowsProcessed(job.getRowsProcessed());
+        dto.setTotalRows(job.getTotalRows() >= 0 ? job.getTotalRows() : null);
+        dto.setRowsPerSecond(Math.round(job.getRowsPerSecond() * 10) / 10.0);
+        dto.setSubmittedAt(job.getSubmittedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        if (job.getCheckpoint() != null) {
+            dto.setCheckpointPhase(job.getCheckpoint().getPhase());
+            dto.setCheckpointLine(job.getCheckpoint().getLastLineNumber());
+        }
+        dto.setResumable(job.isResumable());
+
+        BulkImportService.BulkImportResult result = job.getResult();
+        dto.setSuccessCount(result.getSuccessCount());
+        dto.setFailedCount(result.getFailedCount());
+        dto.setTotalCount(result.getTotalCount());
+        List<String> errors = result.getErrors();
+        synchronized (errors) {
+            dto.setErrors(new ArrayList<>(errors));
+        }
+        return dto;
+    }
+}
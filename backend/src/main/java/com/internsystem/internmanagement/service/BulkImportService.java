@@ -6,25 +6,35 @@ import com.internsystem.internmanagement.entity.Team;
 import com.internsystem.internmanagement.entity.TeamMember;
 import com.internsystem.internmanagement.entity.Project;
 import com.internsystem.internmanagement.entity.ProjectStatus;
-import com.internsystem.internmanagement.dto.ProjectTeamDTO;
+import com.internsystem.internmanagement.entity.ProjectTeam;
+import com.internsystem.internmanagement.dto.BulkImportPreviewDTO;
+import com.internsystem.internmanagement.dto.BulkExportRow;
 import com.internsystem.internmanagement.repository.InternRepository;
 import com.internsystem.internmanagement.repository.TeamRepository;
 import com.internsystem.internmanagement.repository.TeamMemberRepository;
 import com.internsystem.internmanagement.repository.ProjectRepository;
+import com.internsystem.internmanagement.repository.ProjectTeamRepository;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class BulkImportService {
@@ -41,309 +51,726 @@ public class BulkImportService {
     @Autowired
     private ProjectRepository projectRepository;
 
-    @Autowired
-    private ProjectTeamService projectTeamService;
-    
     @Autowired
     private InternAuthUserLinkService internAuthUserLinkService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
     
     @Autowired
     private AuthRoleService authRoleService;
 
-    @Transactional
-    public BulkImportResult importBulkData(MultipartFile file) {
-        BulkImportResult result = new BulkImportResult();
+    @Autowired
+    private SpreadsheetStreamReader spreadsheetStreamReader;
+
+    @Autowired
+    private CsvStreamReader csvStreamReader;
+
+    @Autowired
+    private ProjectTeamRepository projectTeamRepository;
+
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+
+    @Autowired
+    private ImportRowValidator importRowValidator;
+
+    @Autowired
+    private BulkExportReader bulkExportReader;
+
+    private static final int COLUMN_COUNT = 14; // Updated to expect 14 columns (phone removed)
+    private static final int IN_CLAUSE_LIMIT = 1000;
+    private static final List<String> PHASES = List.of("INTERNS", "TEAMS", "PROJECTS");
+    private static final String[] EXPORT_HEADERS = {
+        "intern_code", "name", "email", "institute",
+        "training_start_date", "training_end_date", "team_name",
+        "team_leader_intern_code", "project_name", "project_description",
+        "project_manager_id", "project_status", "project_start_date", "project_target_date"
+    };
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @Value("${bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk-export.watermark-lag-seconds:300}")
+    private long watermarkLagSeconds;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @PostConstruct
+    void initReadOnlyTransactionTemplate() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static class ImportRow {
+        private final int lineNumber;
+        private final String[] values;
+
+        ImportRow(int lineNumber, String[] values) {
+            this.lineNumber = lineNumber;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Thrown when a chunk cannot be committed; the job keeps the checkpoint of the last committed chunk.
+     */
+    public static class ChunkFailedException extends RuntimeException {
+        public ChunkFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Imports a master data file on behalf of a {@link BulkImportJob}, reporting phase and row progress
+     * to the job and filling its result.
+     *
+     * Each phase commits its rows in chunks of {@code bulk-import.chunk-size}. After every commit the
+     * persistence context is cleared and the job's checkpoint moves to the last committed row, so a
+     * failure or cancel only rolls back the current chunk and a resumed run skips committed rows.
+     * A cancel request aborts the import with a {@link CancellationException}.
+     *
+     * @throws ChunkFailedException when a chunk cannot be committed
+     * @throws Exception when the file cannot be read or the current state cannot be loaded; as with a
+     *         failed chunk, a job that already committed chunks keeps its checkpoint and can be resumed
+     */
+    public void importBulkData(String filename, InputStreamSource source, BulkImportJob job) throws Exception {
+        BulkImportResult result = job.getResult();
+        
+        // Rows are streamed from the file once per phase instead of being held in memory.
+        // The first pass collects lookup keys and validates every row in parallel.
+        job.startPhase("VALIDATING");
+        BulkImportContext.Keys keys = new BulkImportContext.Keys();
+        ImportRowValidator.Run validation = importRowValidator.start(BulkImportService::validateRow);
+        readRows(filename, source, job, (lineNumber, values) -> {
+            validation.accept(lineNumber, values);
+            collectKeys(values, keys);
+            job.rowProcessed();
+        });
+        ImportRowValidator.Report report = validation.finish();
+        job.setTotalRows(report.getRowCount());
+        
+        // A resumed job already reported these rows on its first run
+        if (job.getCheckpoint() == null) {
+            report.getErrorsByLine().forEach((lineNumber, problems) -> {
+                result.addError(lineNumber, String.join("; ", problems));
+                result.incrementFailedCount();
+            });
+        }
+        
+        BulkImportContext context = transactionTemplate.execute(status -> loadContext(keys));
+        
+        Set<String> processedInterns = new HashSet<>();
+        Map<String, String> teamLeaderMap = new HashMap<>();
+        Set<String> processedTeams = new HashSet<>();
+        
+        // Process in three phases to ensure correct hierarchy
+        runPhase("INTERNS", filename, source, job, context, report,
+                (lineNumber, values, chunkResult) ->
+                        processInternRow(lineNumber, values, context, processedInterns, teamLeaderMap, chunkResult),
+                (lineNumber, values) -> replayInternRow(values, processedInterns, teamLeaderMap));
+        runPhase("TEAMS", filename, source, job, context, report,
+                (lineNumber, values, chunkResult) ->
+                        processTeamRow(lineNumber, values, context, processedTeams, teamLeaderMap, chunkResult),
+                (lineNumber, values) -> processedTeams.add(values[6].trim()));
+        runPhase("PROJECTS", filename, source, job, context, report,
+                (lineNumber, values, chunkResult) -> processProjectRow(lineNumber, values, context, chunkResult),
+                (lineNumber, values) -> { });
+    }
+    
+    /**
+     * Dry run of {@link #importBulkData}: validates the file, preloads the current state with the same
+     * set-based queries and replays the import phases against that in-memory state only. Nothing is
+     * written; entities the file would create get temporary negative IDs so later rows can refer to them.
+     */
+    public BulkImportPreviewDTO previewBulkData(String filename, InputStreamSource source) {
+        BulkImportPreviewDTO preview = new BulkImportPreviewDTO();
         
         try {
-            List<String[]> dataRows = new ArrayList<>();
-            String filename = file.getOriginalFilename();
+            BulkImportContext.Keys keys = new BulkImportContext.Keys();
+            ImportRowValidator.Run validation = importRowValidator.start(BulkImportService::validateRow);
+            readRows(filename, source, (lineNumber, values) -> {
+                validation.accept(lineNumber, values);
+                collectKeys(values, keys);
+            });
+            ImportRowValidator.Report report = validation.finish();
+            preview.setRowCount(report.getRowCount());
+            preview.setInvalidRowCount(report.getInvalidRowCount());
+            report.getErrorsByLine().forEach((lineNumber, problems) ->
+                    preview.addError(lineNumber, String.join("; ", problems)));
             
-            if (filename != null && filename.toLowerCase().endsWith(".xlsx")) {
-                // Handle Excel file
-                dataRows = parseExcelFile(file);
-            } else {
-                // Handle CSV file
-                dataRows = parseCsvFile(file);
-            }
+            BulkImportContext context = readOnlyTransactionTemplate.execute(status -> loadContext(keys));
+            BulkImportPreviewState state = new BulkImportPreviewState();
             
-            // Process in three phases to ensure correct hierarchy
-            processInternDataFromRows(dataRows, result);
-            processTeamDataFromRows(dataRows, result);
-            processProjectDataFromRows(dataRows, result);
+            // Interns first, as in the import, so every team and project row sees the full intern set
+            Set<String> processedInterns = new HashSet<>();
+            Map<String, String> teamLeaderMap = new HashMap<>();
+            readRows(filename, source, (lineNumber, values) -> {
+                if (report.isValid(lineNumber)) {
+                    previewInternRow(values, context, processedInterns, teamLeaderMap, state, preview);
+                }
+            });
+            
+            readRows(filename, source, (lineNumber, values) -> {
+                if (report.isValid(lineNumber)) {
+                    previewTeamRow(values, context, teamLeaderMap, state, preview);
+                    previewProjectRow(lineNumber, values, context, state, preview);
+                }
+            });
             
         } catch (Exception e) {
-            result.addError(0, "File processing error: " + e.getMessage());
+            preview.addError(0, "File processing error: " + e.getMessage());
         }
         
-        return result;
+        return preview;
     }
     
-    private List<String[]> parseCsvFile(MultipartFile file) throws Exception {
-        List<String[]> dataRows = new ArrayList<>();
+    /**
+     * Keys already counted by the preview, so each entity or link is reported once, and the temporary
+     * IDs handed out so far. Only used by the thread reading the file.
+     */
+    private static class BulkImportPreviewState {
+        private final Set<String> processedTeams = new HashSet<>();
+        private final Set<String> processedProjects = new HashSet<>();
+        private final Set<String> seenMemberships = new HashSet<>();
+        private final Set<String> seenProjectTeams = new HashSet<>();
+        private long lastTemporaryId;
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
+        // Negative, so they never collide with stored IDs
+        private long nextTemporaryId() {
+            return --lastTemporaryId;
+        }
+    }
+    
+    private void previewInternRow(String[] values, BulkImportContext context, Set<String> processedInterns,
+                                  Map<String, String> teamLeaderMap, BulkImportPreviewState state,
+                                  BulkImportPreviewDTO preview) {
+        rememberTeamLeader(values, teamLeaderMap);
+        
+        String internCode = values[0].trim();
+        String internName = values[1].trim();
+        if (processedInterns.contains(internCode) || internName.isEmpty()) {
+            return;
+        }
+        processedInterns.add(internCode);
+        
+        Intern existing = context.getIntern(internCode);
+        if (existing == null) {
+            Intern intern = new Intern();
+            intern.setInternId(state.nextTemporaryId());
+            intern.setInternCode(internCode);
+            context.putIntern(intern);
+            preview.getInterns().recordCreate(internCode);
+        } else if (applyInternChanges(existing, internName, values[2].trim(), values[3].trim(),
+                values[4].trim(), values[5].trim())) {
+            preview.getInterns().recordUpdate(internCode);
+        } else {
+            preview.getInterns().recordUnchanged();
+        }
+    }
+    
+    private void previewTeamRow(String[] values, BulkImportContext context, Map<String, String> teamLeaderMap,
+                                BulkImportPreviewState state, BulkImportPreviewDTO preview) {
+        String teamName = values[6].trim();
+        if (!state.processedTeams.add(teamName)) {
+            return;
+        }
+        
+        String teamLeaderInternCode = teamLeaderMap.get(teamName);
+        Intern teamLeader = teamLeaderInternCode != null ? context.getIntern(teamLeaderInternCode) : null;
+        
+        Team team = context.getTeam(teamName);
+        if (team == null) {
+            team = new Team();
+            team.setTeamId(state.nextTemporaryId());
+            team.setTeamName(teamName);
+            team.setTeamLeader(teamLeader);
+            context.putTeam(team);
+            preview.getTeams().recordCreate(teamName);
+        } else if (teamLeader != null && (team.getTeamLeader() == null ||
+                !team.getTeamLeader().getInternId().equals(teamLeader.getInternId()))) {
+            team.setTeamLeader(teamLeader);
+            preview.getTeams().recordUpdate(teamName);
+        } else {
+            preview.getTeams().recordUnchanged();
+            return;
+        }
+        
+        if (teamLeader != null) {
+            previewTeamMember(context, teamLeader, team, state, preview);
+        }
+    }
+    
+    private void previewProjectRow(int lineNumber, String[] values, BulkImportContext context,
+                                   BulkImportPreviewState state, BulkImportPreviewDTO preview) {
+        String internCode = values[0].trim();
+        String projectName = values[8].trim();
+        String projectManagerId = values[10].trim();
+        
+        Intern intern = context.getIntern(internCode);
+        if (intern == null) {
+            preview.addError(lineNumber, "Intern with code '" + internCode + "' not found");
+            return;
+        }
+        Team team = context.getTeam(values[6].trim());
+        previewTeamMember(context, intern, team, state, preview);
+        
+        Project project = context.getProject(projectName);
+        if (project == null) {
+            if (!projectManagerId.isEmpty() && context.getIntern(projectManagerId) == null) {
+                preview.addError(lineNumber, "Project manager with code '" + projectManagerId + "' not found");
+            }
+            project = new Project();
+            project.setProjectId(state.nextTemporaryId());
+            project.setProjectName(projectName);
+            context.putProject(project);
+            state.processedProjects.add(projectName);
+            preview.getProjects().recordCreate(projectName);
+        } else if (state.processedProjects.add(projectName)) {
+            preview.getProjects().recordUnchanged();
+        }
+        
+        String link = project.getProjectId() + ":" + team.getTeamId();
+        if (!context.isTeamAssignedToProject(project.getProjectId(), team.getTeamId())) {
+            context.addProjectTeam(project.getProjectId(), team.getTeamId());
+            state.seenProjectTeams.add(link);
+            preview.getProjectTeams().recordCreate(projectName + " / " + team.getTeamName());
+        } else if (state.seenProjectTeams.add(link)) {
+            preview.getProjectTeams().recordUnchanged();
+        }
+    }
+    
+    private void previewTeamMember(BulkImportContext context, Intern intern, Team team,
+                                   BulkImportPreviewState state, BulkImportPreviewDTO preview) {
+        String membership = team.getTeamId() + ":" + intern.getInternId();
+        if (!context.isTeamMember(team.getTeamId(), intern.getInternId())) {
+            context.addTeamMember(team.getTeamId(), intern.getInternId());
+            state.seenMemberships.add(membership);
+            preview.getTeamMemberships().recordCreate(team.getTeamName() + " / " + intern.getInternCode());
+        } else if (state.seenMemberships.add(membership)) {
+            preview.getTeamMemberships().recordUnchanged();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ChunkRowProcessor {
+        void process(int lineNumber, String[] values, BulkImportResult chunkResult);
+    }
+    
+    /**
+     * Streams one phase over the file. Rows that failed validation are skipped. Rows already committed
+     * by an earlier run of the job (up to its checkpoint) only go to {@code replay}, which rebuilds the
+     * in-memory state later phases rely on.
+     */
+    private void runPhase(String phase, String filename, InputStreamSource source, BulkImportJob job,
+                          BulkImportContext context, ImportRowValidator.Report report,
+                          ChunkRowProcessor processor, SpreadsheetStreamReader.RowHandler replay) throws Exception {
+        job.startPhase(phase);
+        BulkImportJob.Checkpoint checkpoint = job.getCheckpoint();
+        int phaseIndex = PHASES.indexOf(phase);
+        int checkpointPhaseIndex = checkpoint != null ? PHASES.indexOf(checkpoint.getPhase()) : -1;
+        
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        readRows(filename, source, job, (lineNumber, values) -> {
+            if (!report.isValid(lineNumber)) {
+                job.rowProcessed();
+                return;
+            }
+            if (phaseIndex < checkpointPhaseIndex
+                    || (phaseIndex == checkpointPhaseIndex && lineNumber <= checkpoint.getLastLineNumber())) {
+                replay.handleRow(lineNumber, values);
+                job.rowProcessed();
+                return;
+            }
             
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue; // Skip header
-                }
-                if (!line.trim().isEmpty()) {
-                    String[] values = parseCsvLineInternal(line);
-                    dataRows.add(values);
-                }
+            chunk.add(new ImportRow(lineNumber, values));
+            if (chunk.size() >= chunkSize) {
+                commitChunk(phase, chunk, job, context, processor);
+                chunk.clear();
             }
+        });
+        if (!chunk.isEmpty()) {
+            commitChunk(phase, chunk, job, context, processor);
+        }
+    }
+    
+    private void commitChunk(String phase, List<ImportRow> chunk, BulkImportJob job, BulkImportContext context,
+                             ChunkRowProcessor processor) {
+        // Counts and errors only reach the job once the chunk is committed
+        BulkImportResult chunkResult = new BulkImportResult();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ImportRow row : chunk) {
+                    job.checkCancelled();
+                    processor.process(row.lineNumber, row.values, chunkResult);
+                    job.rowProcessed();
+                }
+                flushPending(context);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ChunkFailedException("Import stopped in " + phase + " phase at lines " + chunk.get(0).lineNumber
+                    + "-" + chunk.get(chunk.size() - 1).lineNumber + ": " + e.getMessage(), e);
         }
         
-        return dataRows;
+        job.getResult().addAll(chunkResult);
+        job.setCheckpoint(new BulkImportJob.Checkpoint(phase, chunk.get(chunk.size() - 1).lineNumber));
     }
     
-    private List<String[]> parseExcelFile(MultipartFile file) throws Exception {
-        List<String[]> dataRows = new ArrayList<>();
+    private void readRows(String filename, InputStreamSource source, BulkImportJob job,
+                          SpreadsheetStreamReader.RowHandler handler) throws Exception {
+        readRows(filename, source, (lineNumber, values) -> {
+            job.checkCancelled();
+            handler.handleRow(lineNumber, values);
+        });
+    }
+    
+    private void readRows(String filename, InputStreamSource source, SpreadsheetStreamReader.RowHandler handler) throws Exception {
+        if (SpreadsheetStreamReader.isSpreadsheet(filename)) {
+            // Handle Excel file
+            spreadsheetStreamReader.read(filename, source, COLUMN_COUNT, handler);
+        } else {
+            // Handle CSV file
+            csvStreamReader.read(source, handler);
+        }
+    }
+    
+    /**
+     * Checks of a single row that need no database access. Runs on the validation stage's worker
+     * threads, so it must stay free of side effects.
+     */
+    private static List<String> validateRow(String[] values) {
+        if (values.length < COLUMN_COUNT) {
+            return List.of("Invalid format: expected 14 columns");
+        }
         
-        try (InputStream inputStream = file.getInputStream()) {
-            Workbook workbook;
+        List<String> problems = new ArrayList<>();
+        if (values[0].trim().isEmpty() || values[6].trim().isEmpty() || values[8].trim().isEmpty()) {
+            problems.add("Required fields missing");
+        }
+        validateDate(values[4], "training_start_date", problems);
+        validateDate(values[5], "training_end_date", problems);
+        validateDate(values[12], "project_start_date", problems);
+        validateDate(values[13], "project_target_date", problems);
+        return problems;
+    }
+    
+    private static void validateDate(String value, String column, List<String> problems) {
+        try {
+            parseDate(value);
+        } catch (IllegalArgumentException e) {
+            problems.add("Invalid " + column + ": " + e.getMessage());
+        }
+    }
+    
+    private void collectKeys(String[] values, BulkImportContext.Keys keys) {
+        if (values.length < COLUMN_COUNT) return;
+        
+        keys.addInternCode(values[0].trim());
+        keys.addTeamName(values[6].trim());
+        keys.addInternCode(values[7].trim());  // team_leader_intern_code
+        keys.addProjectName(values[8].trim());
+        keys.addInternCode(values[10].trim()); // project_manager_id
+    }
+    
+    /**
+     * Loads everything the file refers to with set-based queries, so the phases never look up
+     * interns, teams, projects, memberships or project-team links row by row.
+     */
+    private BulkImportContext loadContext(BulkImportContext.Keys keys) {
+        BulkImportContext context = new BulkImportContext();
+        
+        for (List<String> codes : partition(keys.getInternCodes())) {
+            internRepository.findByInternCodeIn(codes).forEach(context::putIntern);
+        }
+        
+        List<Long> teamIds = new ArrayList<>();
+        for (List<String> names : partition(keys.getTeamNames())) {
+            for (Team team : teamRepository.findByTeamNameIn(names)) {
+                context.putTeam(team);
+                teamIds.add(team.getTeamId());
+            }
+        }
+        
+        List<Long> projectIds = new ArrayList<>();
+        for (List<String> names : partition(keys.getProjectNames())) {
+            for (Project project : projectRepository.findByProjectNameIn(names)) {
+                context.putProject(project);
+                projectIds.add(project.getProjectId());
+            }
+        }
+        
+        for (List<Long> ids : partition(teamIds)) {
+            teamMemberRepository.findMembershipsByTeamIds(ids)
+                    .forEach(m -> context.addTeamMember(m.getTeamId(), m.getInternId()));
+        }
+        
+        for (List<Long> ids : partition(projectIds)) {
+            projectTeamRepository.findLinksByProjectIds(ids)
+                    .forEach(link -> context.addProjectTeam(link.getProjectId(), link.getTeamId()));
+        }
+        
+        return context;
+    }
+    
+    /**
+     * Writes queued interns, teams, projects, memberships and project-team links as JDBC batches. New
+     * interns, teams and projects are re-read in one query each so their generated IDs are known; the
+     * leader memberships of new teams and the team links of new projects are queued at that point.
+     */
+    private void flushPending(BulkImportContext context) {
+        List<Intern> newInterns = context.getPendingInterns();
+        if (!newInterns.isEmpty()) {
+            importBatchWriter.insertInterns(newInterns);
             
-            // Try to determine if it's .xlsx or .xls
-            if (file.getOriginalFilename().toLowerCase().endsWith(".xlsx")) {
-                workbook = new XSSFWorkbook(inputStream);
-            } else {
-                workbook = new HSSFWorkbook(inputStream);
+            List<String> codes = newInterns.stream().map(Intern::getInternCode).toList();
+            List<Intern> savedInterns = internRepository.findByInternCodeIn(codes);
+            for (Intern savedIntern : savedInterns) {
+                context.putIntern(savedIntern);
             }
             
-            Sheet sheet = workbook.getSheetAt(0); // Get first sheet
-            Iterator<Row> rowIterator = sheet.iterator();
+            // Automatically create AuthUser records for these new interns
+            authRoleService.ensureAuthUsersExist(savedInterns);
+            newInterns.clear();
+        }
+        
+        List<Team> newTeams = context.getPendingTeams();
+        if (!newTeams.isEmpty()) {
+            importBatchWriter.insertTeams(newTeams);
             
-            // Skip header row
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
+            List<String> names = newTeams.stream().map(Team::getTeamName).toList();
+            for (Team savedTeam : newestByName(teamRepository.findByTeamNameIn(names), Team::getTeamName, Team::getTeamId)) {
+                context.putTeam(savedTeam);
+                // Add leader as team member
+                if (savedTeam.getTeamLeader() != null) {
+                    queueTeamMember(context, savedTeam.getTeamLeader(), savedTeam);
+                }
             }
+            newTeams.clear();
+        }
+        
+        List<Project> newProjects = context.getPendingProjects();
+        if (!newProjects.isEmpty()) {
+            importBatchWriter.insertProjects(newProjects);
             
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                String[] values = new String[14]; // Updated to expect 14 columns (phone removed)
-                
-                for (int i = 0; i < 14; i++) {
-                    Cell cell = row.getCell(i);
-                    if (cell == null) {
-                        values[i] = "";
-                    } else {
-                        switch (cell.getCellType()) {
-                            case STRING:
-                                values[i] = cell.getStringCellValue();
-                                break;
-                            case NUMERIC:
-                                if (DateUtil.isCellDateFormatted(cell)) {
-                                    values[i] = cell.getLocalDateTimeCellValue().toLocalDate().toString();
-                                } else {
-                                    values[i] = String.valueOf((long) cell.getNumericCellValue());
-                                }
-                                break;
-                            case BOOLEAN:
-                                values[i] = String.valueOf(cell.getBooleanCellValue());
-                                break;
-                            case FORMULA:
-                                values[i] = cell.getCellFormula();
-                                break;
-                            default:
-                                values[i] = "";
-                        }
-                    }
-                }
-                
-                // Only add rows that have at least some data
-                boolean hasData = false;
-                for (String value : values) {
-                    if (value != null && !value.trim().isEmpty()) {
-                        hasData = true;
-                        break;
-                    }
-                }
-                
-                if (hasData) {
-                    dataRows.add(values);
+            List<String> names = newProjects.stream().map(Project::getProjectName).toList();
+            for (Project savedProject : newestByName(projectRepository.findByProjectNameIn(names),
+                    Project::getProjectName, Project::getProjectId)) {
+                context.putProject(savedProject);
+                for (Team team : context.getPendingTeamsByProjectName().getOrDefault(savedProject.getProjectName(), List.of())) {
+                    queueProjectTeam(context, savedProject, team);
                 }
             }
-            
-            workbook.close();
+            newProjects.clear();
+            context.getPendingTeamsByProjectName().clear();
         }
         
-        return dataRows;
+        importBatchWriter.insertTeamMembers(context.getPendingTeamMembers());
+        context.getPendingTeamMembers().clear();
+        
+        importBatchWriter.insertProjectTeams(context.getPendingProjectTeams());
+        context.getPendingProjectTeams().clear();
     }
     
-    private void processInternDataFromRows(List<String[]> dataRows, BulkImportResult result) {
-        Set<String> processedInterns = new HashSet<>();
-        
-        for (int i = 0; i < dataRows.size(); i++) {
-            try {
-                String[] values = dataRows.get(i);
-                if (values.length < 14) continue; // Updated to expect 14 columns
-                
-                String internCode = values[0].trim();
-                if (internCode.isEmpty() || processedInterns.contains(internCode)) {
-                    continue; // Skip if already processed
-                }
-                
-                String internName = values[1].trim();
-                String email = values[2].trim();
-                String institute = values[3].trim();
-                String trainingStartDate = values[4].trim();
-                String trainingEndDate = values[5].trim();
-                
-                if (internCode.isEmpty() || internName.isEmpty()) {
-                    continue; // Skip invalid entries
-                }
-                
-                createOrGetIntern(internCode, internName, email, institute, trainingStartDate, trainingEndDate);
-                processedInterns.add(internCode);
-                
-            } catch (Exception e) {
-                result.addError(i + 2, "Intern processing error: " + e.getMessage());
-                result.incrementFailedCount();
+    /**
+     * Team and project names are not unique, so a name another writer created meanwhile comes back
+     * twice; the newest row is taken as the one just inserted.
+     */
+    private static <T> Collection<T> newestByName(List<T> rows, Function<T, String> name, Function<T, Long> id) {
+        Map<String, T> newest = new HashMap<>();
+        for (T row : rows) {
+            newest.merge(name.apply(row), row, (current, other) -> id.apply(other) > id.apply(current) ? other : current);
+        }
+        return newest.values();
+    }
+    
+    private void flushPendingIfFull(BulkImportContext context) {
+        int batchSize = importBatchWriter.getBatchSize();
+        if (context.getPendingInterns().size() >= batchSize
+                || context.getPendingTeams().size() >= batchSize
+                || context.getPendingProjects().size() >= batchSize
+                || context.getPendingTeamMembers().size() >= batchSize
+                || context.getPendingProjectTeams().size() >= batchSize) {
+            flushPending(context);
+        }
+    }
+    
+    private static <T> List<List<T>> partition(Collection<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(values.size(), IN_CLAUSE_LIMIT));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == IN_CLAUSE_LIMIT) {
+                chunks.add(current);
+                current = new ArrayList<>(IN_CLAUSE_LIMIT);
             }
         }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
     }
     
-    private void processTeamDataFromRows(List<String[]> dataRows, BulkImportResult result) {
-        Set<String> processedTeams = new HashSet<>();
-        Map<String, String> teamLeaderMap = new HashMap<>();
+    /**
+     * Rebuilds the team leader map and processed set for an intern row committed by an earlier run.
+     */
+    private void replayInternRow(String[] values, Set<String> processedInterns, Map<String, String> teamLeaderMap) {
+        rememberTeamLeader(values, teamLeaderMap);
+        String internCode = values[0].trim();
+        if (!internCode.isEmpty() && !values[1].trim().isEmpty()) {
+            processedInterns.add(internCode);
+        }
+    }
+    
+    private void rememberTeamLeader(String[] values, Map<String, String> teamLeaderMap) {
+        // Identify team leaders from team_leader_intern_code column for the team phase
+        String teamName = values[6].trim();
+        String teamLeaderInternCode = values[7].trim();
+        if (!teamName.isEmpty() && !teamLeaderInternCode.isEmpty()) {
+            teamLeaderMap.put(teamName, teamLeaderInternCode);
+        }
+    }
+    
+    private void processInternRow(int lineNumber, String[] values, BulkImportContext context,
+                                  Set<String> processedInterns, Map<String, String> teamLeaderMap,
+                                  BulkImportResult result) {
+        if (values.length < COLUMN_COUNT) return;
         
-        // First pass: identify team leaders from team_leader_intern_code column
-        for (String[] values : dataRows) {
-            try {
-                if (values.length < 14) continue; // Updated to expect 14 columns
-                
-                String teamName = values[6].trim();  // Moved from index 7 to 6
-                String teamLeaderInternCode = values[7].trim(); // Moved from index 8 to 7
-                
-                if (!teamName.isEmpty() && !teamLeaderInternCode.isEmpty()) {
-                    teamLeaderMap.put(teamName, teamLeaderInternCode);
-                }
-            } catch (Exception e) {
-                // Skip problematic lines in first pass
+        rememberTeamLeader(values, teamLeaderMap);
+        
+        try {
+            String internCode = values[0].trim();
+            if (internCode.isEmpty() || processedInterns.contains(internCode)) {
+                return; // Skip if already processed
+            }
+            
+            String internName = values[1].trim();
+            String email = values[2].trim();
+            String institute = values[3].trim();
+            String trainingStartDate = values[4].trim();
+            String trainingEndDate = values[5].trim();
+            
+            if (internName.isEmpty()) {
+                return; // Skip invalid entries
             }
+            
+            createOrGetIntern(context, internCode, internName, email, institute, trainingStartDate, trainingEndDate);
+            processedInterns.add(internCode);
+            
+        } catch (Exception e) {
+            result.addError(lineNumber, "Intern processing error: " + e.getMessage());
+            result.incrementFailedCount();
         }
-        
-        // Second pass: create teams with identified leaders
-        for (int i = 0; i < dataRows.size(); i++) {
-            try {
-                String[] values = dataRows.get(i);
-                if (values.length < 14) continue; // Updated to expect 14 columns
-                
-                String teamName = values[6].trim();  // Moved from index 7 to 6
-                if (teamName.isEmpty() || processedTeams.contains(teamName)) {
-                    continue; // Skip if already processed
-                }
-                
-                String teamLeaderInternCode = teamLeaderMap.get(teamName);
-                Intern teamLeader = null;
-                if (teamLeaderInternCode != null && !teamLeaderInternCode.isEmpty()) {
-                    teamLeader = getInternByCode(teamLeaderInternCode);
-                }
-                
-                createOrGetTeam(teamName, teamLeader);
-                processedTeams.add(teamName);
-                
-            } catch (Exception e) {
-                result.addError(i + 2, "Team processing error: " + e.getMessage());
-                result.incrementFailedCount();
+    }
+    
+    private void processTeamRow(int lineNumber, String[] values, BulkImportContext context,
+                                Set<String> processedTeams, Map<String, String> teamLeaderMap,
+                                BulkImportResult result) {
+        try {
+            if (values.length < COLUMN_COUNT) return;
+            
+            String teamName = values[6].trim();
+            if (teamName.isEmpty() || processedTeams.contains(teamName)) {
+                return; // Skip if already processed
+            }
+            
+            String teamLeaderInternCode = teamLeaderMap.get(teamName);
+            Intern teamLeader = null;
+            if (teamLeaderInternCode != null && !teamLeaderInternCode.isEmpty()) {
+                teamLeader = context.getIntern(teamLeaderInternCode);
             }
+            
+            createOrGetTeam(context, teamName, teamLeader);
+            processedTeams.add(teamName);
+            
+        } catch (Exception e) {
+            result.addError(lineNumber, "Team processing error: " + e.getMessage());
+            result.incrementFailedCount();
         }
     }
     
-    private void processProjectDataFromRows(List<String[]> dataRows, BulkImportResult result) {
-        for (int i = 0; i < dataRows.size(); i++) {
-            try {
-                String[] values = dataRows.get(i);
-                if (values.length < 14) {
-                    result.addError(i + 2, "Invalid format: expected 14 columns");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                // Parse all values with correct column indices (after removing phone column)
-                String internCode = values[0].trim();
-                String teamName = values[6].trim();  // Moved from index 7 to 6
-                // values[7] is team_leader_intern_code (moved from index 8 to 7)
-                String projectName = values[8].trim();  // Moved from index 9 to 8
-                String projectDescription = values[9].trim();  // Moved from index 10 to 9
-                String projectManagerId = values[10].trim(); // Moved from index 11 to 10
-                String projectStatus = values[11].trim();  // Moved from index 12 to 11
-                String projectStartDate = values[12].trim();  // Moved from index 13 to 12
-                String projectTargetDate = values[13].trim();  // Moved from index 14 to 13
-                
-                // Validate required fields
-                if (internCode.isEmpty() || teamName.isEmpty() || projectName.isEmpty()) {
-                    result.addError(i + 2, "Required fields missing");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                // Get existing entities
-                Intern intern = getInternByCode(internCode);
-                if (intern == null) {
-                    result.addError(i + 2, "Intern with code '" + internCode + "' not found");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                Team team = getTeamByName(teamName);
-                if (team == null) {
-                    result.addError(i + 2, "Team '" + teamName + "' not found");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                // Check if intern is already a team member
-                if (!isInternTeamMember(intern, team)) {
-                    createTeamMember(intern, team);
-                }
-                
-                // Handle project creation/assignment
-                Project project = getProjectByName(projectName);
-                if (project == null) {
-                    // Get project manager if specified
-                    Intern projectManager = null;
-                    if (!projectManagerId.isEmpty()) {
-                        projectManager = getInternByCode(projectManagerId);
-                        if (projectManager == null) {
-                            result.addError(i + 2, "Project manager with code '" + projectManagerId + "' not found");
-                        }
-                    }
-                    
-                    project = createProject(projectName, projectDescription, projectStatus, 
-                                          projectStartDate, projectTargetDate, team, projectManager);
-                } else {
-                    // Project exists, check if this team is already assigned to it
-                    if (!isTeamAssignedToProject(project.getProjectId(), team.getTeamId())) {
-                        projectTeamService.assignTeamToProject(project.getProjectId(), team.getTeamId());
+    private void processProjectRow(int lineNumber, String[] values, BulkImportContext context, BulkImportResult result) {
+        try {
+            // Parse all values with correct column indices (after removing phone column)
+            String internCode = values[0].trim();
+            String teamName = values[6].trim();
+            // values[7] is team_leader_intern_code
+            String projectName = values[8].trim();
+            String projectDescription = values[9].trim();
+            String projectManagerId = values[10].trim();
+            String projectStatus = values[11].trim();
+            String projectStartDate = values[12].trim();
+            String projectTargetDate = values[13].trim();
+            
+            // Get existing entities
+            Intern intern = context.getIntern(internCode);
+            if (intern == null) {
+                result.addError(lineNumber, "Intern with code '" + internCode + "' not found");
+                result.incrementFailedCount();
+                return;
+            }
+            
+            Team team = context.getTeam(teamName);
+            if (team == null) {
+                result.addError(lineNumber, "Team '" + teamName + "' not found");
+                result.incrementFailedCount();
+                return;
+            }
+            
+            // Check if intern is already a team member
+            createTeamMember(context, intern, team);
+            
+            // Handle project creation/assignment
+            Project project = context.getProject(projectName);
+            if (project == null) {
+                // Get project manager if specified
+                Intern projectManager = null;
+                if (!projectManagerId.isEmpty()) {
+                    projectManager = context.getIntern(projectManagerId);
+                    if (projectManager == null) {
+                        result.addError(lineNumber, "Project manager with code '" + projectManagerId + "' not found");
                     }
                 }
                 
-                result.incrementSuccessCount();
-                
-            } catch (Exception e) {
-                result.addError(i + 2, "Project processing error: " + e.getMessage());
-                result.incrementFailedCount();
+                createProject(context, projectName, projectDescription, projectStatus, 
+                              projectStartDate, projectTargetDate, team, projectManager);
+            } else {
+                // Project exists, check if this team is already assigned to it
+                assignTeamToProject(context, project, team);
             }
+            
+            result.incrementSuccessCount();
+            
+        } catch (Exception e) {
+            result.addError(lineNumber, "Project processing error: " + e.getMessage());
+            result.incrementFailedCount();
         }
     }
     
-    private Intern createOrGetIntern(String internCode, String name, String email, 
+    private Intern createOrGetIntern(BulkImportContext context, String internCode, String name, String email, 
                                    String institute, String startDate, String endDate) {
-        Optional<Intern> existing = internRepository.findByInternCode(internCode);
-        
-        if (existing.isPresent()) {
-            // Update existing intern if new data provided
-            Intern intern = existing.get();
-            if (!name.isEmpty()) intern.setName(name);
-            if (!email.isEmpty()) intern.setEmail(email);
-            if (!institute.isEmpty()) intern.setInstitute(institute);
-            if (!startDate.isEmpty()) intern.setTrainingStartDate(parseDate(startDate));
-            if (!endDate.isEmpty()) intern.setTrainingEndDate(parseDate(endDate));
-            return internRepository.save(intern);
+        Intern existing = context.getIntern(internCode);
+        
+        if (existing != null) {
+            // Context entities are detached between chunks, so only changed interns are merged back
+            if (!applyInternChanges(existing, name, email, institute, startDate, endDate)) {
+                return existing;
+            }
+            existing.setSyncHash(null);
+            internAuthUserLinkService.invalidate(existing.getInternId());
+            Intern savedIntern = internRepository.save(existing);
+            context.putIntern(savedIntern);
+            return savedIntern;
         } else {
             // Create new intern
             Intern intern = new Intern();
@@ -353,28 +780,51 @@ public class BulkImportService {
             intern.setInstitute(institute);
             if (!startDate.isEmpty()) intern.setTrainingStartDate(parseDate(startDate));
             if (!endDate.isEmpty()) intern.setTrainingEndDate(parseDate(endDate));
-            Intern savedIntern = internRepository.save(intern);
             
-            // Automatically create AuthUser record for this new intern
-            authRoleService.ensureAuthUserExists(savedIntern.getInternId());
+            // Inserted with the next batch; the AuthUser record is created once the ID is known
+            context.getPendingInterns().add(intern);
+            flushPendingIfFull(context);
             
-            return savedIntern;
+            return intern;
         }
     }
     
-    private Intern getInternByCode(String internCode) {
-        return internRepository.findByInternCode(internCode).orElse(null);
-    }
-    
-    private Team getTeamByName(String teamName) {
-        return teamRepository.findByTeamName(teamName).orElse(null);
+    /**
+     * Copies the non-empty values from an import row onto an existing intern.
+     *
+     * @return whether any field actually changed
+     */
+    private static boolean applyInternChanges(Intern intern, String name, String email, String institute,
+                                              String startDate, String endDate) {
+        boolean changed = false;
+        if (!name.isEmpty() && !name.equals(intern.getName())) {
+            intern.setName(name);
+            changed = true;
+        }
+        if (!email.isEmpty() && !email.equals(intern.getEmail())) {
+            intern.setEmail(email);
+            changed = true;
+        }
+        if (!institute.isEmpty() && !institute.equals(intern.getInstitute())) {
+            intern.setInstitute(institute);
+            changed = true;
+        }
+        if (!startDate.isEmpty() && !Objects.equals(parseDate(startDate), intern.getTrainingStartDate())) {
+            intern.setTrainingStartDate(parseDate(startDate));
+            changed = true;
+        }
+        if (!endDate.isEmpty() && !Objects.equals(parseDate(endDate), intern.getTrainingEndDate())) {
+            intern.setTrainingEndDate(parseDate(endDate));
+            changed = true;
+        }
+        return changed;
     }
     
-    private Team createOrGetTeam(String teamName, Intern teamLeader) {
-        Optional<Team> existing = teamRepository.findByTeamName(teamName);
+    private Team createOrGetTeam(BulkImportContext context, String teamName, Intern teamLeader) {
+        Team existing = context.getTeam(teamName);
         
-        if (existing.isPresent()) {
-            Team team = existing.get();
+        if (existing != null) {
+            Team team = existing;
             // Update team leader if different
             if (teamLeader != null && (team.getTeamLeader() == null || 
                 !team.getTeamLeader().getInternId().equals(teamLeader.getInternId()))) {
@@ -383,18 +833,18 @@ public class BulkImportService {
                 // Find corresponding AuthUser for the team leader
                 Optional<AuthUser> authUserOpt = internAuthUserLinkService.findAuthUserForIntern(teamLeader);
                 if (authUserOpt.isPresent()) {
+                    if (team.getTeamLeaderAuthUser() != null) {
+                        authorizationService.invalidate(team.getTeamLeaderAuthUser().getId());
+                    }
                     team.setTeamLeaderAuthUser(authUserOpt.get());
+                    authorizationService.invalidate(authUserOpt.get().getId());
                 }
                 
                 team = teamRepository.save(team);
+                context.putTeam(team);
                 
                 // Add new leader as team member if not already
-                if (!teamMemberRepository.existsByTeamTeamIdAndInternInternId(team.getTeamId(), teamLeader.getInternId())) {
-                    TeamMember leaderMember = new TeamMember();
-                    leaderMember.setTeam(team);
-                    leaderMember.setIntern(teamLeader);
-                    teamMemberRepository.save(leaderMember);
-                }
+                createTeamMember(context, teamLeader, team);
             }
             return team;
         } else {
@@ -408,46 +858,56 @@ public class BulkImportService {
                 Optional<AuthUser> authUserOpt = internAuthUserLinkService.findAuthUserForIntern(teamLeader);
                 if (authUserOpt.isPresent()) {
                     team.setTeamLeaderAuthUser(authUserOpt.get());
+                    authorizationService.invalidate(authUserOpt.get().getId());
                 }
             }
             
-            team = teamRepository.save(team);
-            
-            // Add leader as team member
-            if (teamLeader != null) {
-                TeamMember leaderMember = new TeamMember();
-                leaderMember.setTeam(team);
-                leaderMember.setIntern(teamLeader);
-                teamMemberRepository.save(leaderMember);
-            }
+            // Inserted with the next batch; the leader becomes a member once the team has its ID
+            context.putTeam(team);
+            context.getPendingTeams().add(team);
+            flushPendingIfFull(context);
             
             return team;
         }
     }
     
-    private boolean isInternTeamMember(Intern intern, Team team) {
-        return teamMemberRepository.existsByTeamTeamIdAndInternInternId(team.getTeamId(), intern.getInternId());
+    private void createTeamMember(BulkImportContext context, Intern intern, Team team) {
+        queueTeamMember(context, intern, team);
+        flushPendingIfFull(context);
     }
     
-    private void createTeamMember(Intern intern, Team team) {
-        if (!isInternTeamMember(intern, team)) {
+    private void queueTeamMember(BulkImportContext context, Intern intern, Team team) {
+        if (!context.isTeamMember(team.getTeamId(), intern.getInternId())) {
             TeamMember teamMember = new TeamMember();
             teamMember.setTeam(team);
             teamMember.setIntern(intern);
-            teamMemberRepository.save(teamMember);
+            context.getPendingTeamMembers().add(teamMember);
+            context.addTeamMember(team.getTeamId(), intern.getInternId());
         }
     }
     
-    private Project getProjectByName(String projectName) {
-        return projectRepository.findByProjectName(projectName).orElse(null);
+    private void assignTeamToProject(BulkImportContext context, Project project, Team team) {
+        if (project.getProjectId() == null) {
+            // Queued project: the link is queued once the project is written and has its ID
+            context.getPendingTeamsByProjectName()
+                    .computeIfAbsent(project.getProjectName(), k -> new ArrayList<>()).add(team);
+            return;
+        }
+        queueProjectTeam(context, project, team);
+        flushPendingIfFull(context);
     }
     
-    private boolean isTeamAssignedToProject(Long projectId, Long teamId) {
-        List<ProjectTeamDTO> projectTeams = projectTeamService.getTeamsByProjectId(projectId);
-        return projectTeams.stream().anyMatch(pt -> pt.getTeamId().equals(teamId));
+    private void queueProjectTeam(BulkImportContext context, Project project, Team team) {
+        if (!context.isTeamAssignedToProject(project.getProjectId(), team.getTeamId())) {
+            ProjectTeam projectTeam = new ProjectTeam();
+            projectTeam.setProject(project);
+            projectTeam.setTeam(team);
+            context.getPendingProjectTeams().add(projectTeam);
+            context.addProjectTeam(project.getProjectId(), team.getTeamId());
+        }
     }
     
-    private Project createProject(String projectName, String description, String status, 
+    private Project createProject(BulkImportContext context, String projectName, String description, String status, 
                                 String startDate, String targetDate, Team assignedTeam, Intern projectManager) {
         Project project = new Project();
         project.setProjectName(projectName);
@@ -486,39 +946,34 @@ public class BulkImportService {
             }
         }
         
-        Project savedProject = projectRepository.save(project);
+        // Inserted with the next batch, like its link to the assigned team
+        context.putProject(project);
+        context.getPendingProjects().add(project);
+        if (project.getProjectManagerAuthUser() != null) {
+            authorizationService.invalidate(project.getProjectManagerAuthUser().getId());
+        }
         
         // Create project-team relationship if team is assigned
         if (assignedTeam != null) {
-            projectTeamService.assignTeamToProject(savedProject.getProjectId(), assignedTeam.getTeamId());
+            assignTeamToProject(context, project, assignedTeam);
         }
+        flushPendingIfFull(context);
         
-        return savedProject;
+        return project;
     }
     
-    private String[] parseCsvLineInternal(String line) {
-        List<String> values = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder currentValue = new StringBuilder();
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                values.add(currentValue.toString());
-                currentValue = new StringBuilder();
-            } else {
-                currentValue.append(c);
-            }
-        }
-        
-        values.add(currentValue.toString());
-        return values.toArray(new String[0]);
-    }
+    // Tried in order; formatters are immutable, so one set is shared by all threads
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+        DateTimeFormatter.ofPattern("dd/MM/yyyy"),      // DD/MM/YYYY
+        DateTimeFormatter.ofPattern("dd-MM-yyyy"),      // DD-MM-YYYY
+        DateTimeFormatter.ofPattern("yyyy-MM-dd"),      // YYYY-MM-DD
+        DateTimeFormatter.ofPattern("MM/dd/yyyy"),      // MM/DD/YYYY
+        DateTimeFormatter.ofPattern("MM-dd-yyyy"),      // MM-DD-YYYY
+        DateTimeFormatter.ofPattern("dd.MM.yyyy"),      // DD.MM.YYYY
+        DateTimeFormatter.ofPattern("yyyy.MM.dd")       // YYYY.MM.DD
+    };
     
-    private LocalDate parseDate(String dateStr) {
+    private static LocalDate parseDate(String dateStr) {
         if (dateStr == null || dateStr.trim().isEmpty()) {
             return null;
         }
@@ -526,17 +981,7 @@ public class BulkImportService {
         dateStr = dateStr.trim();
         
         // Try multiple date formats
-        DateTimeFormatter[] formatters = {
-            DateTimeFormatter.ofPattern("dd/MM/yyyy"),      // DD/MM/YYYY
-            DateTimeFormatter.ofPattern("dd-MM-yyyy"),      // DD-MM-YYYY
-            DateTimeFormatter.ofPattern("yyyy-MM-dd"),      // YYYY-MM-DD
-            DateTimeFormatter.ofPattern("MM/dd/yyyy"),      // MM/DD/YYYY
-            DateTimeFormatter.ofPattern("MM-dd-yyyy"),      // MM-DD-YYYY
-            DateTimeFormatter.ofPattern("dd.MM.yyyy"),      // DD.MM.YYYY
-            DateTimeFormatter.ofPattern("yyyy.MM.dd")       // YYYY.MM.DD
-        };
-        
-        for (DateTimeFormatter formatter : formatters) {
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
             try {
                 return LocalDate.parse(dateStr, formatter);
             } catch (Exception e) {
@@ -559,9 +1004,10 @@ public class BulkImportService {
     }
     
     public static class BulkImportResult {
-        private int successCount = 0;
-        private int failedCount = 0;
-        private List<String> errors = new ArrayList<>();
+        // Written by the import thread while job status requests read it
+        private volatile int successCount = 0;
+        private volatile int failedCount = 0;
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
         
         public void incrementSuccessCount() {
             successCount++;
@@ -575,292 +1021,55 @@ public class BulkImportService {
             errors.add("Line " + lineNumber + ": " + error);
         }
         
+        public void addAll(BulkImportResult other) {
+            successCount += other.successCount;
+            failedCount += other.failedCount;
+            errors.addAll(other.errors);
+        }
+        
         public int getSuccessCount() { return successCount; }
         public int getFailedCount() { return failedCount; }
         public int getTotalCount() { return successCount + failedCount; }
         public List<String> getErrors() { return errors; }
     }
 
-    public String exportBulkData() {
-        StringBuilder csvBuilder = new StringBuilder();
-        
-        // Add header
-        csvBuilder.append("intern_code,name,email,institute,training_start_date,training_end_date,team_name,team_leader_intern_code,project_name,project_description,project_manager_id,project_status,project_start_date,project_target_date\n");
-        
-        // Get all data with joins
-        List<Intern> allInterns = internRepository.findAll();
-        List<Team> allTeams = teamRepository.findAll();
-        List<TeamMember> allTeamMembers = teamMemberRepository.findAll();
-        List<Project> allProjects = projectRepository.findAll();
-        
-        // Create maps for quick lookup
-        Map<Long, Team> teamMap = new HashMap<>();
-        for (Team team : allTeams) {
-            teamMap.put(team.getTeamId(), team);
-        }
-        
-        Map<Long, Project> projectMap = new HashMap<>(); 
-        for (Project project : allProjects) {
-            projectMap.put(project.getProjectId(), project);
-        }
-        
-        // Map intern to teams
-        Map<Long, List<Team>> internTeamMap = new HashMap<>();
-        for (TeamMember teamMember : allTeamMembers) {
-            Long internId = teamMember.getIntern().getInternId();
-            Long teamId = teamMember.getTeam().getTeamId();
-            Team team = teamMap.get(teamId);
-            if (team != null) {
-                internTeamMap.computeIfAbsent(internId, k -> new ArrayList<>()).add(team);
-            }
-        }
-        
-        // Map team to projects using ProjectTeam relationships
-        Map<Long, List<Project>> teamProjectMap = new HashMap<>();
-        List<ProjectTeamDTO> projectTeams = projectTeamService.getAllProjectTeams();
-                
-        for (ProjectTeamDTO projectTeam : projectTeams) {
-            Project project = projectMap.get(projectTeam.getProjectId());
-            if (project != null) {
-                teamProjectMap.computeIfAbsent(projectTeam.getTeamId(), k -> new ArrayList<>()).add(project);
-            }
-        }
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-        
-        // Generate CSV rows
-        for (Intern intern : allInterns) {
-            List<Team> internTeams = internTeamMap.getOrDefault(intern.getInternId(), new ArrayList<>());
-            
-            if (internTeams.isEmpty()) {
-                // Intern not in any team
-                csvBuilder.append(escapeForCsv(intern.getInternCode())).append(",")
-                    .append(escapeForCsv(intern.getName())).append(",")
-                    .append(escapeForCsv(intern.getEmail())).append(",")
-                    .append(escapeForCsv(intern.getInstitute())).append(",")
-                    .append(intern.getTrainingStartDate() != null ? intern.getTrainingStartDate().format(formatter) : "").append(",")
-                    .append(intern.getTrainingEndDate() != null ? intern.getTrainingEndDate().format(formatter) : "").append(",")
-                    .append(",") // team_name
-                    .append(",") // team_leader_intern_code
-                    .append(",") // project_name
-                    .append(",") // project_description
-                    .append(",") // project_manager_id
-                    .append(",") // project_status
-                    .append(",") // project_start_date
-                    .append("\n"); // project_target_date
-            } else {
-                // Intern is in teams
-                for (Team team : internTeams) {
-                    List<Project> teamProjects = teamProjectMap.getOrDefault(team.getTeamId(), new ArrayList<>());
-                    
-                    if (teamProjects.isEmpty()) {
-                        // Team has no projects, but check if intern has projects through other teams
-                        Set<Project> allInternProjects = new HashSet<>();
-                        for (Team otherTeam : internTeams) {
-                            allInternProjects.addAll(teamProjectMap.getOrDefault(otherTeam.getTeamId(), new ArrayList<>()));
-                        }
-                        
-                        if (allInternProjects.isEmpty()) {
-                            // Intern has no projects at all
-                            csvBuilder.append(escapeForCsv(intern.getInternCode())).append(",")
-                                .append(escapeForCsv(intern.getName())).append(",")
-                                .append(escapeForCsv(intern.getEmail())).append(",")
-                                .append(escapeForCsv(intern.getInstitute())).append(",")
-                                .append(intern.getTrainingStartDate() != null ? intern.getTrainingStartDate().format(formatter) : "").append(",")
-                                .append(intern.getTrainingEndDate() != null ? intern.getTrainingEndDate().format(formatter) : "").append(",")
-                                .append(escapeForCsv(team.getTeamName())).append(",")
-                                .append(escapeForCsv(team.getTeamLeader().getInternCode())).append(",") // team_leader_intern_code
-                                .append(",") // project_name
-                                .append(",") // project_description
-                                .append(",") // project_manager_id
-                                .append(",") // project_status
-                                .append(",") // project_start_date
-                                .append("\n"); // project_target_date
-                        } else {
-                            // Show all intern's projects even for teams without direct project assignment
-                            for (Project project : allInternProjects) {
-                                csvBuilder.append(escapeForCsv(intern.getInternCode())).append(",")
-                                    .append(escapeForCsv(intern.getName())).append(",")
-                                    .append(escapeForCsv(intern.getEmail())).append(",")
-                                    .append(escapeForCsv(intern.getInstitute())).append(",")
-                                    .append(intern.getTrainingStartDate() != null ? intern.getTrainingStartDate().format(formatter) : "").append(",")
-                                    .append(intern.getTrainingEndDate() != null ? intern.getTrainingEndDate().format(formatter) : "").append(",")
-                                    .append(escapeForCsv(team.getTeamName())).append(",")
-                                    .append(escapeForCsv(team.getTeamLeader().getInternCode())).append(",") // team_leader_intern_code
-                                    .append(escapeForCsv(project.getProjectName())).append(",")
-                                    .append(escapeForCsv(project.getDescription())).append(",")
-                                    .append(project.getProjectManager() != null ? escapeForCsv(project.getProjectManager().getInternCode()) : "").append(",") // project_manager_id
-                                    .append(project.getStatus() != null ? project.getStatus().toString() : "").append(",")
-                                    .append(project.getStartDate() != null ? project.getStartDate().format(formatter) : "").append(",")
-                                    .append(project.getTargetDate() != null ? project.getTargetDate().format(formatter) : "").append("\n");
-                            }
-                        }
-                    } else {
-                        // Team has projects
-                        for (Project project : teamProjects) {
-                            csvBuilder.append(escapeForCsv(intern.getInternCode())).append(",")
-                                .append(escapeForCsv(intern.getName())).append(",")
-                                .append(escapeForCsv(intern.getEmail())).append(",")
-                                .append(escapeForCsv(intern.getInstitute())).append(",")
-                                .append(intern.getTrainingStartDate() != null ? intern.getTrainingStartDate().format(formatter) : "").append(",")
-                                .append(intern.getTrainingEndDate() != null ? intern.getTrainingEndDate().format(formatter) : "").append(",")
-                                .append(escapeForCsv(team.getTeamName())).append(",")
-                                .append(escapeForCsv(team.getTeamLeader().getInternCode())).append(",") // team_leader_intern_code
-                                .append(escapeForCsv(project.getProjectName())).append(",")
-                                .append(escapeForCsv(project.getDescription())).append(",")
-                                .append(project.getProjectManager() != null ? escapeForCsv(project.getProjectManager().getInternCode()) : "").append(",") // project_manager_id
-                                .append(project.getStatus() != null ? project.getStatus().toString() : "").append(",")
-                                .append(project.getStartDate() != null ? project.getStartDate().format(formatter) : "").append(",")
-                                .append(project.getTargetDate() != null ? project.getTargetDate().format(formatter) : "").append("\n");
-                        }
-                    }
-                }
-            }
-        }
-        
-        return csvBuilder.toString();
+    /**
+     * Writes the CSV export to {@code writer} while it is read. Rows come from a forward-only cursor
+     * and are written as soon as they are built, so only the current intern's rows are held in memory.
+     *
+     * @param since when not null, only rows whose intern, team or project changed after this time
+     */
+    public void exportBulkData(Writer writer, LocalDateTime since) throws IOException {
+        writer.write(String.join(",", EXPORT_HEADERS) + "\n");
+        forEachExportRow(since, (intern, team, project) -> writeExportRow(writer, intern, team, project));
     }
-    
-    public byte[] exportBulkDataAsExcel() {
+
+    /**
+     * The {@code since} to hand out with an export that starts now. updated_at is stamped when a row is
+     * written, not when its transaction commits, so a transaction still open when the export reads can
+     * commit rows stamped before now afterwards. The watermark lags by {@code bulk-export.watermark-lag-seconds},
+     * the longest a writing transaction is expected to stay open, so those rows still fall after it.
+     * Incremental exports therefore overlap: rows changed within the lag are exported again next time.
+     */
+    public LocalDateTime exportWatermark() {
+        return LocalDateTime.now().minusSeconds(watermarkLagSeconds);
+    }
+
+    /**
+     * Writes the Excel export to {@code outputStream}. Rows go through a streaming workbook, so only a
+     * small window of them is on the heap however many interns there are.
+     *
+     * @param since when not null, only rows whose intern, team or project changed after this time
+     */
+    public void exportBulkDataAsExcel(OutputStream outputStream, LocalDateTime since) throws IOException {
+        SXSSFWorkbook workbook = ExcelExportSupport.createWorkbook();
         try {
-            // Get all data with joins
-            List<Intern> allInterns = internRepository.findAll();
-            List<Team> allTeams = teamRepository.findAll();
-            List<TeamMember> allTeamMembers = teamMemberRepository.findAll();
-            List<Project> allProjects = projectRepository.findAll();
-            
-            // Create maps for quick lookup
-            Map<Long, Team> teamMap = new HashMap<>();
-            for (Team team : allTeams) {
-                teamMap.put(team.getTeamId(), team);
-            }
-            
-            Map<Long, Project> projectMap = new HashMap<>(); 
-            for (Project project : allProjects) {
-                projectMap.put(project.getProjectId(), project);
-            }
-            
-            // Map intern to teams
-            Map<Long, List<Team>> internTeamMap = new HashMap<>();
-            for (TeamMember teamMember : allTeamMembers) {
-                Long internId = teamMember.getIntern().getInternId();
-                Long teamId = teamMember.getTeam().getTeamId();
-                Team team = teamMap.get(teamId);
-                if (team != null) {
-                    internTeamMap.computeIfAbsent(internId, k -> new ArrayList<>()).add(team);
-                }
-            }
-            
-            // Map team to projects using ProjectTeam relationships
-            Map<Long, List<Project>> teamProjectMap = new HashMap<>();
-            List<ProjectTeamDTO> projectTeams = projectTeamService.getAllProjectTeams();
-                    
-            for (ProjectTeamDTO projectTeam : projectTeams) {
-                Project project = projectMap.get(projectTeam.getProjectId());
-                if (project != null) {
-                    teamProjectMap.computeIfAbsent(projectTeam.getTeamId(), k -> new ArrayList<>()).add(project);
-                }
-            }
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-            
-            // Create Excel workbook
-            Workbook workbook = new XSSFWorkbook();
             Sheet sheet = workbook.createSheet("Data");
-            
-            // Create styles for formatting
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 10);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            
-            // Create data cell style
-            CellStyle dataStyle = workbook.createCellStyle();
-            Font dataFont = workbook.createFont();
-            dataFont.setFontHeightInPoints((short) 10);
-            dataStyle.setFont(dataFont);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            
-            // Create date cell style
-            CellStyle dateStyle = workbook.createCellStyle();
-            dateStyle.cloneStyleFrom(dataStyle);
-            CreationHelper createHelper = workbook.getCreationHelper();
-            dateStyle.setDataFormat(createHelper.createDataFormat().getFormat("dd-mm-yyyy"));
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            headerRow.setHeight((short) 400); // Set header row height
-            String[] headers = {
-                "intern_code", "name", "email", "institute", 
-                "training_start_date", "training_end_date", "team_name", 
-                "team_leader_intern_code", "project_name", "project_description", 
-                "project_manager_id", "project_status", "project_start_date", "project_target_date"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // Generate data rows
-            int rowNum = 1;
-            for (Intern intern : allInterns) {
-                List<Team> internTeams = internTeamMap.getOrDefault(intern.getInternId(), new ArrayList<>());
-                
-                if (internTeams.isEmpty()) {
-                    // Intern with no teams
-                    Row row = sheet.createRow(rowNum++);
-                    fillInternRowWithStyle(row, intern, null, null, formatter, dataStyle, dateStyle);
-                } else {
-                    // Intern with teams and projects
-                    for (Team team : internTeams) {
-                        List<Project> teamProjects = teamProjectMap.getOrDefault(team.getTeamId(), new ArrayList<>());
-                        
-                        if (teamProjects.isEmpty()) {
-                            // Team has no projects, but check if intern has projects through other teams
-                            Set<Project> allInternProjects = new HashSet<>();
-                            for (Team otherTeam : internTeams) {
-                                allInternProjects.addAll(teamProjectMap.getOrDefault(otherTeam.getTeamId(), new ArrayList<>()));
-                            }
-                            
-                            if (allInternProjects.isEmpty()) {
-                                // Intern has no projects at all
-                                Row row = sheet.createRow(rowNum++);
-                                fillInternRowWithStyle(row, intern, team, null, formatter, dataStyle, dateStyle);
-                            } else {
-                                // Show all intern's projects even for teams without direct project assignment
-                                for (Project project : allInternProjects) {
-                                    Row row = sheet.createRow(rowNum++);
-                                    fillInternRowWithStyle(row, intern, team, project, formatter, dataStyle, dateStyle);
-                                }
-                            }
-                        } else {
-                            // Team has projects
-                            for (Project project : teamProjects) {
-                                Row row = sheet.createRow(rowNum++);
-                                fillInternRowWithStyle(row, intern, team, project, formatter, dataStyle, dateStyle);
-                            }
-                        }
-                    }
-                }
-            }
-            
+            ExcelExportSupport.Styles styles = new ExcelExportSupport.Styles(workbook);
+
             // Set uniform column widths (in units of 1/256th of a character width)
             int uniformWidth = 17 * 256; // 20 characters wide
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < EXPORT_HEADERS.length; i++) {
                 sheet.setColumnWidth(i, uniformWidth);
             }
             // Customize specific column widths
@@ -876,102 +1085,215 @@ public class BulkImportService {
             sheet.setColumnWidth(11, 11 * 256); // project_manager_id
             sheet.setColumnWidth(12, 14 * 256); // project_status
 
-            // Convert to byte array
-            java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
+            // Create header row
+            Row headerRow = sheet.createRow(0);
+            headerRow.setHeight((short) 400); // Set header row height
+            for (int i = 0; i < EXPORT_HEADERS.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(EXPORT_HEADERS[i]);
+                cell.setCellStyle(styles.header);
+            }
+
+            int[] rowNum = {1};
+            forEachExportRow(since, (intern, team, project) ->
+                    fillInternRowWithStyle(sheet.createRow(rowNum[0]++), intern, team, project, styles));
+
             workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
             workbook.close();
-            
-            return outputStream.toByteArray();
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate Excel export", e);
         }
     }
-    
-    private void fillInternRowWithStyle(Row row, Intern intern, Team team, Project project, DateTimeFormatter formatter, CellStyle dataStyle, CellStyle dateStyle) {
-        int cellNum = 0;
-        
-        // Intern data
-        Cell cell0 = row.createCell(cellNum++);
-        cell0.setCellValue(intern.getInternCode() != null ? intern.getInternCode() : "");
-        cell0.setCellStyle(dataStyle);
-        
-        Cell cell1 = row.createCell(cellNum++);
-        cell1.setCellValue(intern.getName() != null ? intern.getName() : "");
-        cell1.setCellStyle(dataStyle);
-        
-        Cell cell2 = row.createCell(cellNum++);
-        cell2.setCellValue(intern.getEmail() != null ? intern.getEmail() : "");
-        cell2.setCellStyle(dataStyle);
-        
-        Cell cell3 = row.createCell(cellNum++);
-        cell3.setCellValue(intern.getInstitute() != null ? intern.getInstitute() : "");
-        cell3.setCellStyle(dataStyle);
-        
-        // Training start date - use actual date value
-        Cell cell5 = row.createCell(cellNum++);
-        if (intern.getTrainingStartDate() != null) {
-            cell5.setCellValue(java.sql.Date.valueOf(intern.getTrainingStartDate()));
-            cell5.setCellStyle(dateStyle);
+
+    @FunctionalInterface
+    private interface ExportRowWriter {
+        void write(BulkExportRow intern, BulkExportRow team, BulkExportRow project) throws IOException;
+    }
+
+    /**
+     * Produces the export rows in intern order from the single export query of {@link BulkExportReader}:
+     * one row per project of each of the intern's teams, the intern's other projects for a
+     * team without any, and a bare row for an intern without teams. The team and project arguments are
+     * rows of the read model whose team respectively project columns are used.
+     *
+     * With {@code since}, only the interns touched by a change are read: the ids of changed interns, of
+     * members of changed teams and of members of teams on changed projects come from the updated_at
+     * indexes, and of their rows only those with a changed intern, team or project are produced.
+     * Membership changes and deletions do not touch these timestamps and are not picked up.
+     */
+    private void forEachExportRow(LocalDateTime since, ExportRowWriter rowWriter) throws IOException {
+        ExportRowWriter writer = since == null ? rowWriter : (intern, team, project) -> {
+            if (isAfter(intern.getInternUpdatedAt(), since)
+                    || (team != null && isAfter(team.getTeamUpdatedAt(), since))
+                    || (project != null && isAfter(project.getProjectUpdatedAt(), since))) {
+                rowWriter.write(intern, team, project);
+            }
+        };
+        if (since == null) {
+            try (Stream<BulkExportRow> rows = bulkExportReader.streamRows()) {
+                writeExportRows(rows, writer);
+            }
         } else {
-            cell5.setCellValue("");
-            cell5.setCellStyle(dataStyle);
+            writeChangedExportRows(since, writer);
         }
-        
-        // Training end date - use actual date value
-        Cell cell6 = row.createCell(cellNum++);
-        if (intern.getTrainingEndDate() != null) {
-            cell6.setCellValue(java.sql.Date.valueOf(intern.getTrainingEndDate()));
-            cell6.setCellStyle(dateStyle);
+    }
+
+    private void writeChangedExportRows(LocalDateTime since, ExportRowWriter rowWriter) throws IOException {
+        // Sorted, so the chunks below still produce the interns in id order
+        SortedSet<Long> internIds = new TreeSet<>(internRepository.findIdsUpdatedAfter(since));
+        internIds.addAll(teamMemberRepository.findInternIdsOfTeamsUpdatedAfter(since));
+        internIds.addAll(teamMemberRepository.findInternIdsOfProjectsUpdatedAfter(since));
+
+        List<Long> chunk = new ArrayList<>(IN_CLAUSE_LIMIT);
+        for (Iterator<Long> iterator = internIds.iterator(); iterator.hasNext(); ) {
+            chunk.add(iterator.next());
+            if (chunk.size() == IN_CLAUSE_LIMIT || !iterator.hasNext()) {
+                try (Stream<BulkExportRow> rows = bulkExportReader.streamRows(chunk)) {
+                    writeExportRows(rows, rowWriter);
+                }
+                chunk.clear();
+            }
+        }
+    }
+
+    private static boolean isAfter(LocalDateTime updatedAt, LocalDateTime since) {
+        return updatedAt != null && updatedAt.isAfter(since);
+    }
+
+    private void writeExportRows(Stream<BulkExportRow> rows, ExportRowWriter rowWriter) throws IOException {
+        // Rows arrive grouped by intern; only the current intern's rows are buffered
+        List<BulkExportRow> internRows = new ArrayList<>();
+        Iterator<BulkExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            BulkExportRow row = iterator.next();
+            if (!internRows.isEmpty() && !internRows.get(0).getInternId().equals(row.getInternId())) {
+                writeInternRows(internRows, rowWriter);
+                internRows.clear();
+            }
+            internRows.add(row);
+        }
+        if (!internRows.isEmpty()) {
+            writeInternRows(internRows, rowWriter);
+        }
+    }
+
+    private void writeInternRows(List<BulkExportRow> internRows, ExportRowWriter rowWriter) throws IOException {
+        BulkExportRow intern = internRows.get(0);
+        if (intern.getMembershipId() == null) {
+            // Intern not in any team
+            rowWriter.write(intern, null, null);
+            return;
+        }
+
+        // Per team membership the rows of its projects, plus every project of the intern across teams
+        Map<Long, BulkExportRow> teams = new LinkedHashMap<>();
+        Map<Long, List<BulkExportRow>> teamProjects = new HashMap<>();
+        Map<Long, BulkExportRow> allInternProjects = new LinkedHashMap<>();
+        for (BulkExportRow row : internRows) {
+            teams.putIfAbsent(row.getMembershipId(), row);
+            List<BulkExportRow> projects = teamProjects.computeIfAbsent(row.getMembershipId(), k -> new ArrayList<>());
+            if (row.getProjectId() != null) {
+                projects.add(row);
+                allInternProjects.putIfAbsent(row.getProjectId(), row);
+            }
+        }
+
+        for (BulkExportRow team : teams.values()) {
+            List<BulkExportRow> projects = teamProjects.get(team.getMembershipId());
+            if (!projects.isEmpty()) {
+                for (BulkExportRow project : projects) {
+                    rowWriter.write(intern, team, project);
+                }
+            } else if (allInternProjects.isEmpty()) {
+                rowWriter.write(intern, team, null);
+            } else {
+                // Show all intern's projects even for teams without direct project assignment
+                for (BulkExportRow project : allInternProjects.values()) {
+                    rowWriter.write(intern, team, project);
+                }
+            }
+        }
+    }
+
+    private void writeExportRow(Writer writer, BulkExportRow intern, BulkExportRow team, BulkExportRow project) throws IOException {
+        writer.write(escapeForCsv(intern.getInternCode()));
+        writer.write(',');
+        writer.write(escapeForCsv(intern.getName()));
+        writer.write(',');
+        writer.write(escapeForCsv(intern.getEmail()));
+        writer.write(',');
+        writer.write(escapeForCsv(intern.getInstitute()));
+        writer.write(',');
+        writer.write(intern.getTrainingStartDate() != null ? intern.getTrainingStartDate().format(EXPORT_DATE_FORMAT) : "");
+        writer.write(',');
+        writer.write(intern.getTrainingEndDate() != null ? intern.getTrainingEndDate().format(EXPORT_DATE_FORMAT) : "");
+        writer.write(',');
+        if (team != null) {
+            writer.write(escapeForCsv(team.getTeamName()));
+            writer.write(',');
+            writer.write(escapeForCsv(team.getTeamLeaderCode()));
         } else {
-            cell6.setCellValue("");
-            cell6.setCellStyle(dataStyle);
+            writer.write(',');
         }
-        
-        // Team data
-        Cell cell7 = row.createCell(cellNum++);
-        cell7.setCellValue(team != null ? team.getTeamName() : "");
-        cell7.setCellStyle(dataStyle);
-        
-        Cell cell8 = row.createCell(cellNum++);
-        cell8.setCellValue(team != null && team.getTeamLeader() != null ? team.getTeamLeader().getInternCode() : "");
-        cell8.setCellStyle(dataStyle);
-        
-        // Project data
-        Cell cell9 = row.createCell(cellNum++);
-        cell9.setCellValue(project != null ? project.getProjectName() : "");
-        cell9.setCellStyle(dataStyle);
-        
-        Cell cell10 = row.createCell(cellNum++);
-        cell10.setCellValue(project != null ? project.getDescription() : "");
-        cell10.setCellStyle(dataStyle);
-        
-        Cell cell11 = row.createCell(cellNum++);
-        cell11.setCellValue(project != null && project.getProjectManager() != null ? project.getProjectManager().getInternCode() : "");
-        cell11.setCellStyle(dataStyle);
-        
-        Cell cell12 = row.createCell(cellNum++);
-        cell12.setCellValue(project != null ? project.getStatus().toString() : "");
-        cell12.setCellStyle(dataStyle);
-        
-        // Project start date - use actual date value
-        Cell cell13 = row.createCell(cellNum++);
-        if (project != null && project.getStartDate() != null) {
-            cell13.setCellValue(java.sql.Date.valueOf(project.getStartDate()));
-            cell13.setCellStyle(dateStyle);
+        writer.write(',');
+        if (project != null) {
+            writer.write(escapeForCsv(project.getProjectName()));
+            writer.write(',');
+            writer.write(escapeForCsv(project.getProjectDescription()));
+            writer.write(',');
+            writer.write(escapeForCsv(project.getProjectManagerCode()));
+            writer.write(',');
+            writer.write(project.getProjectStatus() != null ? project.getProjectStatus().toString() : "");
+            writer.write(',');
+            writer.write(project.getProjectStartDate() != null ? project.getProjectStartDate().format(EXPORT_DATE_FORMAT) : "");
+            writer.write(',');
+            writer.write(project.getProjectTargetDate() != null ? project.getProjectTargetDate().format(EXPORT_DATE_FORMAT) : "");
         } else {
-            cell13.setCellValue("");
-            cell13.setCellStyle(dataStyle);
+            writer.write(",,,,,");
         }
-        
-        // Project target date - use actual date value
-        Cell cell14 = row.createCell(cellNum++);
-        if (project != null && project.getTargetDate() != null) {
-            cell14.setCellValue(java.sql.Date.valueOf(project.getTargetDate()));
-            cell14.setCellStyle(dateStyle);
+        writer.write('\n');
+    }
+
+    private void fillInternRowWithStyle(Row row, BulkExportRow intern, BulkExportRow team, BulkExportRow project,
+                                        ExcelExportSupport.Styles styles) {
+        int cellNum = 0;
+
+        // Intern data
+        setTextCell(row, cellNum++, intern.getInternCode(), styles);
+        setTextCell(row, cellNum++, intern.getName(), styles);
+        setTextCell(row, cellNum++, intern.getEmail(), styles);
+        setTextCell(row, cellNum++, intern.getInstitute(), styles);
+        setDateCell(row, cellNum++, intern.getTrainingStartDate(), styles);
+        setDateCell(row, cellNum++, intern.getTrainingEndDate(), styles);
+
+        // Team data
+        setTextCell(row, cellNum++, team != null ? team.getTeamName() : null, styles);
+        setTextCell(row, cellNum++, team != null ? team.getTeamLeaderCode() : null, styles);
+
+        // Project data
+        setTextCell(row, cellNum++, project != null ? project.getProjectName() : null, styles);
+        setTextCell(row, cellNum++, project != null ? project.getProjectDescription() : null, styles);
+        setTextCell(row, cellNum++, project != null ? project.getProjectManagerCode() : null, styles);
+        setTextCell(row, cellNum++, project != null && project.getProjectStatus() != null ? project.getProjectStatus().toString() : null, styles);
+        setDateCell(row, cellNum++, project != null ? project.getProjectStartDate() : null, styles);
+        setDateCell(row, cellNum, project != null ? project.getProjectTargetDate() : null, styles);
+    }
+
+    private void setTextCell(Row row, int column, String value, ExcelExportSupport.Styles styles) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value != null ? value : "");
+        cell.setCellStyle(styles.data);
+    }
+
+    // Dates are written as real date values so Excel can sort and filter them
+    private void setDateCell(Row row, int column, LocalDate value, ExcelExportSupport.Styles styles) {
+        Cell cell = row.createCell(column);
+        if (value != null) {
+            cell.setCellValue(value);
+            cell.setCellStyle(styles.date);
         } else {
-            cell14.setCellValue("");
-            cell14.setCellStyle(dataStyle);
+            cell.setCellValue("");
+            cell.setCellStyle(styles.data);
         }
     }
     
@@ -0,0 +1,217 @@
+package com.internsystem.internmanagement.service;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader used by the imports. Records are tokenized straight from a char buffer
+ * and handed to a {@link SpreadsheetStreamReader.RowHandler} one at a time, so only the current record
+ * is held in memory. Quoted fields may contain commas, escaped quotes ({@code ""}) and line breaks.
+ *
+ * The charset comes from a byte order mark when present (UTF-8, UTF-16LE/BE). Otherwise the start of
+ * the file is checked for valid UTF-8, falling back to Windows-1252, which is what Excel writes for
+ * "CSV" on Windows.
+ *
+ * A quoted field that is still open at the end of the file fails the read with a
+ * {@link CsvParseException}, rather than silently taking the rest of the file as its value.
+ */
+@Component
+public class CsvStreamReader {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int CHARSET_SNIFF_BYTES = 64 * 1024;
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    /**
+     * Streams every data record (the header record is skipped) to the handler. Blank lines are skipped.
+     * The line number passed to the handler is the physical line the record starts on.
+     *
+     * @throws CsvParseException when a quoted field is not closed before the end of the file
+     */
+    public void read(InputStreamSource source, SpreadsheetStreamReader.RowHandler handler) throws Exception {
+        try (Reader reader = openReader(source.getInputStream())) {
+            readRecords(reader, (lineNumber, values) -> {
+                boolean blank = values.length == 1 && values[0].trim().isEmpty();
+                if (lineNumber > 1 && !blank) {
+                    handler.handleRow(lineNumber, values);
+                }
+            });
+        }
+    }
+
+    /**
+     * Wraps the stream in a reader for its detected charset, with any byte order mark skipped.
+     */
+    static Reader openReader(InputStream inputStream) throws Exception {
+        BufferedInputStream in = new BufferedInputStream(inputStream, CHARSET_SNIFF_BYTES);
+        in.mark(CHARSET_SNIFF_BYTES);
+        byte[] head = in.readNBytes(CHARSET_SNIFF_BYTES);
+        in.reset();
+
+        Charset charset;
+        int bomLength = 0;
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            charset = StandardCharsets.UTF_8;
+            bomLength = 3;
+        } else if (head.length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE) {
+            charset = StandardCharsets.UTF_16LE;
+            bomLength = 2;
+        } else if (head.length >= 2 && (head[0] & 0xFF) == 0xFE && (head[1] & 0xFF) == 0xFF) {
+            charset = StandardCharsets.UTF_16BE;
+            bomLength = 2;
+        } else {
+            charset = isValidUtf8(head, head.length < CHARSET_SNIFF_BYTES) ? StandardCharsets.UTF_8 : WINDOWS_1252;
+        }
+
+        in.skipNBytes(bomLength);
+        return new InputStreamReader(in, charset);
+    }
+
+    private static boolean isValidUtf8(byte[] bytes, boolean endOfInput) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CoderResult result = decoder.decode(ByteBuffer.wrap(bytes), CharBuffer.allocate(bytes.length), endOfInput);
+        // A multi-byte sequence cut off by the sniff window is an underflow, not an error
+        return !result.isError();
+    }
+
+    /**
+     * Tokenizes every record of the reader, header included. Runs of plain characters are copied into
+     * the field buffer in bulk rather than one char at a time.
+     */
+    static void readRecords(Reader reader, SpreadsheetStreamReader.RowHandler handler) throws Exception {
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder field = new StringBuilder(64);
+        List<String> fields = new ArrayList<>(16);
+        int state = FIELD_START;
+        int lineNumber = 1;
+        int recordLineNumber = 1;
+        boolean afterCarriageReturn = false;
+        boolean recordStarted = false;
+        char previousQuoted = 0;
+
+        int length;
+        while ((length = reader.read(buffer)) != -1) {
+            int i = 0;
+            while (i < length) {
+                char c = buffer[i];
+
+                // "\r\n" is one line break; the '\n' has already been handled with the '\r'
+                if (afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    if (c == '\n') {
+                        i++;
+                        continue;
+                    }
+                }
+
+                if (state == QUOTED) {
+                    int start = i;
+                    while (i < length && buffer[i] != '"') {
+                        char quoted = buffer[i];
+                        if (quoted == '\r' || (quoted == '\n' && previousQuoted != '\r')) {
+                            lineNumber++;
+                        }
+                        previousQuoted = quoted;
+                        i++;
+                    }
+                    field.append(buffer, start, i - start);
+                    if (i < length) {
+                        state = QUOTE_IN_QUOTED;
+                        i++;
+                    }
+                    continue;
+                }
+
+                if (state == QUOTE_IN_QUOTED && c == '"') {
+                    // Escaped quote
+                    field.append('"');
+                    state = QUOTED;
+                    previousQuoted = '"';
+                    i++;
+                    continue;
+                }
+
+                if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    state = FIELD_START;
+                    recordStarted = true;
+                    i++;
+                } else if (c == '\n' || c == '\r') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    handler.handleRow(recordLineNumber, fields.toArray(new String[0]));
+                    fields.clear();
+                    state = FIELD_START;
+                    recordStarted = false;
+                    afterCarriageReturn = c == '\r';
+                    lineNumber++;
+                    recordLineNumber = lineNumber;
+                    i++;
+                } else if (c == '"' && state == FIELD_START) {
+                    state = QUOTED;
+                    previousQuoted = 0;
+                    recordStarted = true;
+                    i++;
+                } else {
+                    // Unquoted text, or text after a closing quote; quotes in here are kept as literals
+                    int start = i++;
+                    while (i < length && buffer[i] != ',' && buffer[i] != '\n' && buffer[i] != '\r') {
+                        i++;
+                    }
+                    field.append(buffer, start, i - start);
+                    state = UNQUOTED;
+                    recordStarted = true;
+                }
+            }
+        }
+
+        if (state == QUOTED) {
+            throw new CsvParseException(recordLineNumber, "Unterminated quoted field");
+        }
+
+        // Last record without a trailing line break
+        if (recordStarted || field.length() > 0) {
+            fields.add(field.toString());
+            handler.handleRow(recordLineNumber, fields.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Malformed CSV, reported with the line the offending record starts on.
+     */
+    public static class CsvParseException extends IOException {
+        private final int lineNumber;
+
+        public CsvParseException(int lineNumber, String message) {
+            super("Line " + lineNumber + ": " + message);
+            this.lineNumber = lineNumber;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.internsystem.internmanagement.service;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Workbook setup shared by the Excel exports. The workbooks are streaming ones: only the last
+ * {@link #ROW_WINDOW} rows stay on the heap, older rows are flushed to a compressed temp file that
+ * {@link SXSSFWorkbook#dispose()} removes once the workbook has been written.
+ */
+class ExcelExportSupport {
+
+    static final int ROW_WINDOW = 100;
+
+    private ExcelExportSupport() {
+    }
+
+    static SXSSFWorkbook createWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+    /**
+     * The cell styles of one workbook. Create them once per export and reuse them for every cell;
+     * a workbook can only hold a limited number of styles.
+     */
+    static class Styles {
+        final CellStyle header;
+        final CellStyle data;
+        final CellStyle date;
+
+        Styles(Workbook workbook) {
+            header = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerFont.setFontHeightInPoints((short) 10);
+            header.setFont(headerFont);
+            header.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            setBorders(header);
+
+            data = workbook.createCellStyle();
+            Font dataFont = workbook.createFont();
+            dataFont.setFontHeightInPoints((short) 10);
+            data.setFont(dataFont);
+            setBorders(data);
+
+            date = workbook.createCellStyle();
+            date.cloneStyleFrom(data);
+            date.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd-mm-yyyy"));
+        }
+
+        private static void setBorders(CellStyle style) {
+            style.setBorderTop(BorderStyle.THIN);
+            style.setBorderBottom(BorderStyle.THIN);
+            style.setBorderLeft(BorderStyle.THIN);
+            style.setBorderRight(BorderStyle.THIN);
+            style.setVerticalAlignment(VerticalAlignment.CENTER);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.AuthUser;
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.entity.Project;
+import com.internsystem.internmanagement.entity.ProjectTeam;
+import com.internsystem.internmanagement.entity.Team;
+import com.internsystem.internmanagement.entity.TeamMember;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes new and changed import rows with JDBC batches instead of one JPA persist or merge (and one
+ * round trip) per row.
+ * The entities keep their IDENTITY keys, which rules out Hibernate insert batching, so callers that
+ * need the generated IDs re-read them with one set-based query per batch.
+ *
+ * Runs inside the caller's transaction. With MySQL, rewriteBatchedStatements turns each batch into
+ * a single multi-row INSERT.
+ */
+@Component
+public class ImportBatchWriter {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bulk-import.batch-size:500}")
+    private int batchSize;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * An intern code inserted concurrently (another import or the trainee sync) keeps its stored row
+     * instead of failing the batch; callers re-read interns by code, so they pick up that row.
+     */
+    public void insertInterns(List<Intern> interns) {
+        if (interns.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO interns (intern_code, name, email, institute, specialization, category_id, " +
+                "training_start_date, training_end_date, end_date_alert_sent, sync_hash, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE intern_code = intern_code",
+                interns, batchSize, (ps, intern) -> {
+                    ps.setString(1, intern.getInternCode());
+                    ps.setString(2, intern.getName());
+                    ps.setString(3, intern.getEmail());
+                    ps.setString(4, intern.getInstitute());
+                    ps.setString(5, intern.getSpecialization());
+                    setCategoryId(ps, 6, intern);
+                    setDate(ps, 7, intern.getTrainingStartDate());
+                    setDate(ps, 8, intern.getTrainingEndDate());
+                    ps.setBoolean(9, Boolean.TRUE.equals(intern.getEndDateAlertSent()));
+                    ps.setString(10, intern.getSyncHash());
+                    ps.setTimestamp(11, now);
+                    ps.setTimestamp(12, now);
+                });
+    }
+
+    /**
+     * Team names are not unique, so callers that re-read new teams by name take the newest row of a name.
+     */
+    public void insertTeams(List<Team> teams) {
+        if (teams.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO teams (team_name, team_leader_id, team_leader_auth_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?)",
+                teams, batchSize, (ps, team) -> {
+                    ps.setString(1, team.getTeamName());
+                    setId(ps, 2, team.getTeamLeader() != null ? team.getTeamLeader().getInternId() : null);
+                    setId(ps, 3, team.getTeamLeaderAuthUser() != null ? team.getTeamLeaderAuthUser().getId() : null);
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, now);
+                });
+    }
+
+    /**
+     * Project names are not unique either; see {@link #insertTeams}.
+     */
+    public void insertProjects(List<Project> projects) {
+        if (projects.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO projects (project_name, description, start_date, target_date, status, " +
+                "project_manager_id, project_manager_auth_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                projects, batchSize, (ps, project) -> {
+                    ps.setString(1, project.getProjectName());
+                    ps.setString(2, project.getDescription());
+                    setDate(ps, 3, project.getStartDate());
+                    setDate(ps, 4, project.getTargetDate());
+                    ps.setString(5, project.getStatus() != null ? project.getStatus().name() : null);
+                    setId(ps, 6, project.getProjectManager() != null ? project.getProjectManager().getInternId() : null);
+                    setId(ps, 7, project.getProjectManagerAuthUser() != null
+                            ? project.getProjectManagerAuthUser().getId() : null);
+                    ps.setTimestamp(8, now);
+                    ps.setTimestamp(9, now);
+                });
+    }
+
+    /**
+     * An email registered concurrently is skipped instead of failing the batch.
+     */
+    public void insertAuthUsers(List<AuthUser> authUsers) {
+        if (authUsers.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO auth (email, password, role, name, trainee_id) VALUES (?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE email = email",
+                authUsers, batchSize, (ps, authUser) -> {
+                    ps.setString(1, authUser.getEmail());
+                    ps.setString(2, authUser.getPassword());
+                    ps.setString(3, authUser.getRole().name());
+                    ps.setString(4, authUser.getName());
+                    ps.setString(5, authUser.getTraineeId());
+                });
+    }
+
+    /**
+     * Overwrites the trainee API fields of existing interns, matched by ID. Fields maintained in this
+     * system (mobile number, skills, alert flag) are left alone.
+     */
+    public void updateSyncedInterns(List<Intern> interns) {
+        if (interns.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "UPDATE interns SET intern_code = ?, name = ?, email = ?, institute = ?, specialization = ?, " +
+                "category_id = ?, training_start_date = ?, training_end_date = ?, sync_hash = ?, updated_at = ? " +
+                "WHERE intern_id = ?",
+                interns, batchSize, (ps, intern) -> {
+                    ps.setString(1, intern.getInternCode());
+                    ps.setString(2, intern.getName());
+                    ps.setString(3, intern.getEmail());
+                    ps.setString(4, intern.getInstitute());
+                    ps.setString(5, intern.getSpecialization());
+                    setCategoryId(ps, 6, intern);
+                    setDate(ps, 7, intern.getTrainingStartDate());
+                    setDate(ps, 8, intern.getTrainingEndDate());
+                    ps.setString(9, intern.getSyncHash());
+                    ps.setTimestamp(10, now);
+                    ps.setLong(11, intern.getInternId());
+                });
+    }
+
+    /**
+     * Duplicate (team, intern) pairs are ignored, so a membership created concurrently does not fail the batch.
+     */
+    public void insertTeamMembers(List<TeamMember> members) {
+        if (members.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO team_members (team_id, intern_id) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE intern_id = intern_id",
+                members, batchSize, (ps, member) -> {
+                    ps.setLong(1, member.getTeam().getTeamId());
+                    ps.setLong(2, member.getIntern().getInternId());
+                });
+    }
+
+    /**
+     * Duplicate (project, team) pairs are ignored, so a link created concurrently does not fail the batch.
+     */
+    public void insertProjectTeams(List<ProjectTeam> projectTeams) {
+        if (projectTeams.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO project_teams (project_id, team_id) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE team_id = team_id",
+                projectTeams, batchSize, (ps, projectTeam) -> {
+                    ps.setLong(1, projectTeam.getProject().getProjectId());
+                    ps.setLong(2, projectTeam.getTeam().getTeamId());
+                });
+    }
+
+    public void insertModules(Long projectId, List<ModuleUpsertPlan.ModuleState> modules) {
+        if (modules.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO modules (module_name, description, project_id, owner_intern_id, status, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                modules, batchSize, (ps, module) -> {
+                    ps.setString(1, module.getModuleName());
+                    ps.setString(2, module.getDescription());
+                    ps.setLong(3, projectId);
+                    ps.setLong(4, module.getOwnerInternId());
+                    ps.setString(5, module.getStatus() != null ? module.getStatus().name() : null);
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+    }
+
+    public void updateModules(List<ModuleUpsertPlan.ModuleState> modules) {
+        if (modules.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "UPDATE modules SET description = ?, owner_intern_id = ?, status = ?, updated_at = ? WHERE module_id = ?",
+                modules, batchSize, (ps, module) -> {
+                    ps.setString(1, module.getDescription());
+                    ps.setLong(2, module.getOwnerInternId());
+                    ps.setString(3, module.getStatus() != null ? module.getStatus().name() : null);
+                    ps.setTimestamp(4, now);
+                    ps.setLong(5, module.getModuleId());
+                });
+    }
+
+    public void insertFunctions(List<ModuleUpsertPlan.FunctionState> functions) {
+        if (functions.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO functions (function_name, description, module_id, developer_intern_id, status, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                functions, batchSize, (ps, function) -> {
+                    ps.setString(1, function.getFunctionName());
+                    ps.setString(2, function.getDescription());
+                    ps.setLong(3, function.getModule().getModuleId());
+                    ps.setLong(4, function.getDeveloperInternId());
+                    ps.setString(5, function.getStatus() != null ? function.getStatus().name() : null);
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+    }
+
+    public void updateFunctions(List<ModuleUpsertPlan.FunctionState> functions) {
+        if (functions.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "UPDATE functions SET description = ?, developer_intern_id = ?, status = ?, updated_at = ? " +
+                "WHERE function_id = ?",
+                functions, batchSize, (ps, function) -> {
+                    ps.setString(1, function.getDescription());
+                    ps.setLong(2, function.getDeveloperInternId());
+                    ps.setString(3, function.getStatus() != null ? function.getStatus().name() : null);
+                    ps.setTimestamp(4, now);
+                    ps.setLong(5, function.getFunctionId());
+                });
+    }
+
+    private static void setDate(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            ps.setDate(index, Date.valueOf(date));
+        } else {
+            ps.setNull(index, Types.DATE);
+        }
+    }
+
+    private static void setId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) {
+            ps.setLong(index, id);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static void setCategoryId(PreparedStatement ps, int index, Intern intern) throws SQLException {
+        if (intern.getCategory() != null) {
+            ps.setInt(index, intern.getCategory().getCategoryId());
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.internsystem.internmanagement.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Validation stage of the imports. Rows are handed over while the file is read and validated in chunks
+ * on the fork-join pool, so checks that need no database access (column count, required fields, date
+ * formats) run on all cores and produce the complete error report before any row is written.
+ */
+@Component
+public class ImportRowValidator {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @FunctionalInterface
+    public interface RowRule {
+        /**
+         * @return the problems found in the row, empty when it is valid. Called concurrently, so it must
+         * only look at {@code values}.
+         */
+        List<String> validate(String[] values);
+    }
+
+    public Run start(RowRule rule) {
+        return new Run(rule);
+    }
+
+    /**
+     * One validation pass. {@link #accept} is called by the reading thread; at most a few chunks per
+     * core are in flight, which keeps memory bounded on large files.
+     */
+    public static class Run {
+        private final RowRule rule;
+        private final int maxInFlight = ForkJoinPool.getCommonPoolParallelism() * 2;
+        private final Deque<CompletableFuture<SortedMap<Integer, List<String>>>> inFlight = new ArrayDeque<>();
+        private final SortedMap<Integer, List<String>> errorsByLine = new TreeMap<>();
+        private int[] lineNumbers = new int[CHUNK_SIZE];
+        private String[][] rows = new String[CHUNK_SIZE][];
+        private int size;
+        private int rowCount;
+
+        private Run(RowRule rule) {
+            this.rule = rule;
+        }
+
+        public void accept(int lineNumber, String[] values) {
+            lineNumbers[size] = lineNumber;
+            rows[size] = values;
+            size++;
+            rowCount++;
+            if (size == CHUNK_SIZE) {
+                submitChunk();
+            }
+        }
+
+        public Report finish() {
+            if (size > 0) {
+                submitChunk();
+            }
+            while (!inFlight.isEmpty()) {
+                errorsByLine.putAll(inFlight.poll().join());
+            }
+            return new Report(errorsByLine, rowCount);
+        }
+
+        private void submitChunk() {
+            int[] chunkLines = lineNumbers;
+            String[][] chunkRows = rows;
+            int chunkSize = size;
+            inFlight.add(CompletableFuture.supplyAsync(() -> validateChunk(chunkLines, chunkRows, chunkSize)));
+
+            lineNumbers = new int[CHUNK_SIZE];
+            rows = new String[CHUNK_SIZE][];
+            size = 0;
+
+            while (inFlight.size() > maxInFlight) {
+                errorsByLine.putAll(inFlight.poll().join());
+            }
+        }
+
+        private SortedMap<Integer, List<String>> validateChunk(int[] chunkLines, String[][] chunkRows, int chunkSize) {
+            SortedMap<Integer, List<String>> chunkErrors = new TreeMap<>();
+            for (int i = 0; i < chunkSize; i++) {
+                List<String> problems = rule.validate(chunkRows[i]);
+                if (!problems.isEmpty()) {
+                    chunkErrors.put(chunkLines[i], problems);
+                }
+            }
+            return chunkErrors;
+        }
+    }
+
+    /**
+     * Problems per line number, in file order. Lines without problems are valid.
+     */
+    public static class Report {
+        private final SortedMap<Integer, List<String>> errorsByLine;
+        private final int rowCount;
+
+        Report(SortedMap<Integer, List<String>> errorsByLine, int rowCount) {
+            this.errorsByLine = Collections.unmodifiableSortedMap(errorsByLine);
+            this.rowCount = rowCount;
+        }
+
+        public boolean isValid(int lineNumber) {
+            return !errorsByLine.containsKey(lineNumber);
+        }
+
+        public SortedMap<Integer, List<String>> getErrorsByLine() {
+            return errorsByLine;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public int getInvalidRowCount() {
+            return errorsByLine.size();
+        }
+    }
+}
@@ -5,44 +5,83 @@ import com.internsystem.internmanagement.entity.Intern;
 import com.internsystem.internmanagement.repository.AuthUserRepository;
 import com.internsystem.internmanagement.repository.InternRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Links interns to their AuthUser records. The AuthUser id found for an intern (or the fact that there
+ * is none) is kept in a bounded LRU cache keyed by intern id, so resolving a team leader or project
+ * manager again skips the email and traineeId lookups: a cached link costs one primary key read, a
+ * cached miss no query at all. The cache is dropped when interns or AuthUsers change.
+ */
 @Service
 public class InternAuthUserLinkService {
 
+    // Cached for interns that have no AuthUser, so repeated misses do not query either
+    private static final Long NO_AUTH_USER = -1L;
+
     @Autowired
     private InternRepository internRepository;
 
     @Autowired
     private AuthUserRepository authUserRepository;
 
+    @Value("${auth.link-cache.max-entries:5000}")
+    private int maxEntries;
+
+    private final Map<Long, Long> authUserIdsByInternId = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    // Bumped on every invalidation, so links read before a change are not cached after it
+    private final AtomicLong generation = new AtomicLong();
+
     /**
-     * Find AuthUser associated with an Intern by matching email or traineeId
+     * Find AuthUser associated with an Intern by matching email or traineeId. The cached id saves the
+     * email/traineeId lookup; the AuthUser itself is loaded by primary key, so callers get a usable
+     * entity even outside a transaction.
      */
     public Optional<AuthUser> findAuthUserForIntern(Intern intern) {
         if (intern == null) {
             return Optional.empty();
         }
 
-        // First try to match by email if intern has email
-        if (intern.getEmail() != null && !intern.getEmail().isEmpty()) {
-            Optional<AuthUser> authUserOpt = authUserRepository.findByEmail(intern.getEmail());
-            if (authUserOpt.isPresent()) {
-                return authUserOpt;
+        Long authUserId;
+        if (intern.getInternId() == null) {
+            authUserId = lookUpAuthUserId(intern);
+        } else {
+            synchronized (authUserIdsByInternId) {
+                authUserId = authUserIdsByInternId.get(intern.getInternId());
+            }
+            if (authUserId == null) {
+                long readGeneration = generation.get();
+                authUserId = lookUpAuthUserId(intern);
+                synchronized (authUserIdsByInternId) {
+                    if (generation.get() == readGeneration) {
+                        authUserIdsByInternId.put(intern.getInternId(), authUserId);
+                    }
+                }
             }
         }
 
-        // If no email match, try to match by traineeId with intern code
-        // This assumes traineeId in AuthUser corresponds to internCode in Intern
-        if (intern.getInternCode() != null) {
-            return authUserRepository.findAll().stream()
-                    .filter(authUser -> intern.getInternCode().equals(authUser.getTraineeId()))
-                    .findFirst();
+        if (NO_AUTH_USER.equals(authUserId)) {
+            return Optional.empty();
         }
-
-        return Optional.empty();
+        Optional<AuthUser> authUser = authUserRepository.findById(authUserId);
+        if (authUser.isEmpty() && intern.getInternId() != null) {
+            // Deleted since it was cached; the next call looks the link up again
+            invalidate(intern.getInternId());
+        }
+        return authUser;
     }
 
     /**
@@ -53,7 +92,73 @@ public class InternAuthUserLinkService {
         if (internOpt.isEmpty()) {
             return Optional.empty();
         }
-        
+
         return findAuthUserForIntern(internOpt.get());
     }
+
+    /**
+     * Drops the cached link of an intern whose email or code changed, or that was deleted.
+     */
+    public void invalidate(Long internId) {
+        runNowAndAfterCompletion(() -> {
+            synchronized (authUserIdsByInternId) {
+                generation.incrementAndGet();
+                authUserIdsByInternId.remove(internId);
+            }
+        });
+    }
+
+    /**
+     * Drops all cached links, e.g. after AuthUsers were created or their trainee ID changed.
+     */
+    public void invalidateAll() {
+        runNowAndAfterCompletion(() -> {
+            synchronized (authUserIdsByInternId) {
+                generation.incrementAndGet();
+                authUserIdsByInternId.clear();
+            }
+        });
+    }
+
+    /**
+     * Runs the eviction right away, so the current transaction sees its own changes, and again once it
+     * completes, so links other threads cached from the data before the commit (or this transaction
+     * cached from rolled back data) are dropped too.
+     */
+    private void runNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    // For tests
+    boolean isLinkCached(Long internId) {
+        synchronized (authUserIdsByInternId) {
+            return authUserIdsByInternId.containsKey(internId);
+        }
+    }
+
+    private Long lookUpAuthUserId(Intern intern) {
+        // First try to match by email if intern has email
+        if (intern.getEmail() != null && !intern.getEmail().isEmpty()) {
+            Optional<Long> authUserId = authUserRepository.findIdByEmail(intern.getEmail());
+            if (authUserId.isPresent()) {
+                return authUserId.get();
+            }
+        }
+
+        // If no email match, try to match by traineeId with intern code
+        // This assumes traineeId in AuthUser corresponds to internCode in Intern
+        if (intern.getInternCode() != null) {
+            return authUserRepository.findIdByTraineeId(intern.getInternCode()).orElse(NO_AUTH_USER);
+        }
+
+        return NO_AUTH_USER;
+    }
 }
@@ -0,0 +1,130 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.InternCategory;
+import com.internsystem.internmanagement.repository.InternCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the {@link InternCategory} for a trainee's specialization. Each category's
+ * {@code specializationKeywords} are matched as case-insensitive substrings; when several categories
+ * match, the one ranked first wins. Categories without keywords of their own use the built-in keywords
+ * of their name, if any.
+ *
+ * The categories and one {@link KeywordMatcher} over all keywords are cached, so classifying costs one
+ * pass over the specialization and no query. The cache is rebuilt after categories change.
+ */
+@Component
+public class InternCategoryClassifier {
+
+    /**
+     * Keywords that applied before they were editable, in rank order.
+     */
+    private static final Map<String, String> DEFAULT_KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_KEYWORDS.put("DevOps", "devops, cloud, cicd");
+        DEFAULT_KEYWORDS.put("QA", "qa, quality assurance");
+        DEFAULT_KEYWORDS.put("Web Developer", "fullstack, mern, c#, java, python, flutter, reactjs, php");
+        DEFAULT_KEYWORDS.put("PMBA", "pm, ba");
+        DEFAULT_KEYWORDS.put("AI", "ai");
+    }
+
+    @Autowired
+    private InternCategoryRepository internCategoryRepository;
+
+    private volatile Rules rules;
+    // Bumped on every invalidation, so rules read before a change are not cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @return the best matching category, or null when no keyword matches
+     */
+    public InternCategory classify(String specialization) {
+        if (specialization == null || specialization.isEmpty()) {
+            return null;
+        }
+        Rules current = rules;
+        if (current == null) {
+            current = loadRules();
+        }
+        int rank = current.matcher.bestRank(specialization);
+        return rank == KeywordMatcher.NO_MATCH ? null : current.categoriesByRank.get(rank);
+    }
+
+    /**
+     * Drops the cached rules once the current transaction commits (right away outside a transaction), so
+     * the next classification reads the changed categories.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    rules = null;
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+            rules = null;
+        }
+    }
+
+    private synchronized Rules loadRules() {
+        if (rules != null) {
+            return rules;
+        }
+        long loadedGeneration = generation.get();
+
+        // Built-in categories keep their old precedence; others follow in creation order
+        List<String> defaultOrder = new ArrayList<>(DEFAULT_KEYWORDS.keySet());
+        List<InternCategory> categories = new ArrayList<>(internCategoryRepository.findAll());
+        categories.sort(Comparator
+                .comparingInt((InternCategory category) -> {
+                    int index = defaultOrder.indexOf(category.getCategoryName());
+                    return index >= 0 ? index : defaultOrder.size();
+                })
+                .thenComparing(InternCategory::getCategoryId));
+
+        Map<String, Integer> keywordRanks = new HashMap<>();
+        for (int rank = 0; rank < categories.size(); rank++) {
+            InternCategory category = categories.get(rank);
+            String keywords = category.getSpecializationKeywords() != null
+                    ? category.getSpecializationKeywords()
+                    : DEFAULT_KEYWORDS.get(category.getCategoryName());
+            if (keywords == null) {
+                continue;
+            }
+            for (String keyword : keywords.split(",")) {
+                keywordRanks.merge(keyword.trim().toLowerCase(), rank, Math::min);
+            }
+        }
+
+        Rules loaded = new Rules(categories, new KeywordMatcher(keywordRanks));
+        if (generation.get() == loadedGeneration) {
+            rules = loaded;
+        }
+        return loaded;
+    }
+
+    private static class Rules {
+        private final List<InternCategory> categoriesByRank;
+        private final KeywordMatcher matcher;
+
+        Rules(List<InternCategory> categoriesByRank, KeywordMatcher matcher) {
+            this.categoriesByRank = categoriesByRank;
+            this.matcher = matcher;
+        }
+    }
+}
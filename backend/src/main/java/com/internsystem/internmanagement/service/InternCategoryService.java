@@ -21,6 +21,9 @@ public class InternCategoryService {
     @Autowired
     private InternRepository internRepository;
 
+    @Autowired
+    private InternCategoryClassifier internCategoryClassifier;
+
     // Get category by ID and return as DTO
     public InternCategoryDTO getCategoryById(Integer categoryId) {
         InternCategory category = categoryRepository.findById(categoryId)
@@ -49,7 +52,24 @@ public class InternCategoryService {
     public InternCategory createCategory(String categoryName) {
         InternCategory newCategory = new InternCategory();
         newCategory.setCategoryName(categoryName);
-        return categoryRepository.save(newCategory);
+        InternCategory savedCategory = categoryRepository.save(newCategory);
+        internCategoryClassifier.invalidate();
+        return savedCategory;
+    }
+
+    // Replace the keywords the trainee sync uses to put interns into this category
+    @Transactional
+    public InternCategory updateSpecializationKeywords(Integer categoryId, String keywords) {
+        InternCategory category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + categoryId));
+
+        category.setSpecializationKeywords(keywords);
+        InternCategory savedCategory = categoryRepository.save(category);
+
+        // Synced interns are classified again by the next trainee sync
+        internRepository.clearSyncHashes();
+        internCategoryClassifier.invalidate();
+        return savedCategory;
     }
 
     // Assign an existing intern as a lead for a category
@@ -75,6 +95,7 @@ public class InternCategoryService {
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + categoryId));
 
         intern.setCategory(category);
+        intern.setSyncHash(null);
         return internRepository.save(intern);
     }
 }
\ No newline at end of file
@@ -1,25 +1,15 @@
 package com.internsystem.internmanagement.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.internsystem.internmanagement.dto.InternProjectView;
 import com.internsystem.internmanagement.entity.Intern;
-import com.internsystem.internmanagement.entity.InternCategory;
 import com.internsystem.internmanagement.exception.ExistingResourceException;
 import com.internsystem.internmanagement.exception.ResourceNotFoundException;
-import com.internsystem.internmanagement.repository.InternCategoryRepository;
 import com.internsystem.internmanagement.repository.InternRepository;
 import com.internsystem.internmanagement.repository.ProjectRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import jakarta.annotation.PostConstruct;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,25 +23,15 @@ public class InternService {
     @Autowired
     private InternRepository internRepository;
 
-    @Autowired
-    private InternCategoryRepository internCategoryRepository;
-
     @Autowired
     private AuthRoleService authRoleService;
-    
+
     @Autowired
-    private StatsService statsService;
+    private InternAuthUserLinkService internAuthUserLinkService;
 
     @Autowired
     private ProjectRepository projectRepository;
 
-    @Value("${trainee.api.secret}")
-    private String secretKey;
-
-    private final String activeTraineesApiUrl = "https://prohub.slt.com.lk/ProhubTrainees/api/MainApi/AllActiveTrainees";
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
     public List<Intern> getAllInterns() {
         return internRepository.findAll();
     }
@@ -64,7 +44,7 @@ public class InternService {
         Intern savedIntern = internRepository.save(intern);
         
         // Automatically create AuthUser record for this intern
-        authRoleService.ensureAuthUserExists(savedIntern.getInternId());
+        authRoleService.ensureAuthUsersExist(List.of(savedIntern));
         
         return savedIntern;
     }
@@ -131,6 +111,9 @@ public class InternService {
         intern.setMobileNumber(updatedIntern.getMobileNumber());
         intern.setSkills(updatedIntern.getSkills());
         intern.setProjects(updatedIntern.getProjects());
+        // Let the next trainee sync write the API values again
+        intern.setSyncHash(null);
+        internAuthUserLinkService.invalidate(id);
 
         return internRepository.save(intern);
     }
@@ -140,176 +123,6 @@ public class InternService {
             throw new ResourceNotFoundException("Intern not found with ID: " + id);
         }
         internRepository.deleteById(id);
-    }
-
-    @PostConstruct
-    public void syncAllInternsOnStartup() {
-        syncAllInternsFromApi();
-    }
-
-    public void syncAllInternsFromApi() {
-        try {
-            String requestBody = String.format("{\"secretKey\":\"%s\"}", secretKey);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<String> response = restTemplate.postForEntity(activeTraineesApiUrl, request, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode rootNode = objectMapper.readTree(response.getBody());
-                
-                // Support both old and new API response formats
-                JsonNode traineesArray = null;
-                
-                // Check if response is new format (direct array)
-                if (rootNode.isArray()) {
-                    traineesArray = rootNode;
-                    System.out.println("Using new API format (direct array)");
-                } else {
-                    // Check for old format (dataBundle wrapper)
-                    JsonNode dataBundle = rootNode.get("dataBundle");
-                    if (dataBundle != null && dataBundle.isArray()) {
-                        traineesArray = dataBundle;
-                        System.out.println("Using legacy API format (dataBundle wrapper)");
-                    }
-                }
-
-                if (traineesArray != null && traineesArray.isArray()) {
-                    int apiInternCount = traineesArray.size();
-                    System.out.println("API returned " + apiInternCount + " active interns");
-                    
-                    // Update the active intern count in stats service
-                    statsService.setActiveInternsFromApi(apiInternCount);
-                    
-                    // Support multiple date formats
-                    DateTimeFormatter oldFormatter = DateTimeFormatter.ofPattern("M/d/yyyy");
-                    DateTimeFormatter isoFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                    
-                    for (JsonNode trainee : traineesArray) {
-                        // Handle both old and new field names
-                        String traineeId = extractField(trainee, "internCode", "Trainee_ID");
-                        String traineeName = extractField(trainee, "name", "Trainee_Name");
-                        String traineeInstitute = extractField(trainee, "institute", "Institute");
-                        String traineeEmail = extractField(trainee, "email", "Trainee_Email");
-                        String traineeSpecialization = extractField(trainee, "specialization", "field_of_spec_name");
-                        
-                        LocalDate startDate = parseTrainingDate(trainee, "trainingStartDate", "Training_StartDate", isoFormatter, oldFormatter);
-                        LocalDate endDate = parseTrainingDate(trainee, "trainingEndDate", "Training_EndDate", isoFormatter, oldFormatter);
-
-                        // Find existing intern by internCode (traineeId)
-                        Intern intern = internRepository.findByInternCode(traineeId)
-                                .orElse(new Intern());
-                        boolean isNewIntern = intern.getInternId() == null;
-                        
-                        intern.setInternCode(traineeId);
-                        intern.setName(traineeName);
-                        intern.setInstitute(traineeInstitute);
-                        intern.setEmail(traineeEmail);
-                        intern.setSpecialization(traineeSpecialization);
-                        InternCategory category = findCategoryBySpecialization(traineeSpecialization);
-                        intern.setCategory(category);
-                        intern.setTrainingStartDate(startDate);
-                        intern.setTrainingEndDate(endDate);
-
-                        Intern savedIntern = internRepository.save(intern);
-                        
-                        // Create AuthUser record for new interns from API sync
-                        if (isNewIntern) {
-                            authRoleService.ensureAuthUserExists(savedIntern.getInternId());
-                        }
-                    }
-                } else {
-                    System.out.println("No trainees array found in API response");
-                    statsService.setActiveInternsFromApi(0);
-                }
-            } else {
-                System.err.println("Failed to sync interns: " + response.getStatusCode());
-                statsService.setActiveInternsFromApi(0);
-            }
-        } catch (Exception e) {
-            System.err.println("Error syncing interns from API: " + e.getMessage());
-            e.printStackTrace();
-            statsService.setActiveInternsFromApi(0);
-        }
-    }
-
-    /**
-     * Determine InternCategory based on specialization keywords
-     */
-    private InternCategory findCategoryBySpecialization(String specialization) {
-        String specLower = specialization.toLowerCase();
-
-        if (specLower.contains("devops") || specLower.contains("cloud") || specLower.contains("cicd")) {
-            return internCategoryRepository.findByCategoryName("DevOps").orElse(null);
-        }
-
-        if (specLower.contains("qa") || specLower.contains("quality assurance")) {
-            return internCategoryRepository.findByCategoryName("QA").orElse(null);
-        }
-        
-        if (specLower.contains("fullstack") || 
-            specLower.contains("mern") ||
-            specLower.contains("c#") || 
-            specLower.contains("java") || 
-            specLower.contains("python") ||
-            specLower.contains("flutter") ||
-            specLower.contains("reactjs") ||
-            specLower.contains("php")) {
-                
-            return internCategoryRepository.findByCategoryName("Web Developer").orElse(null);
-        }
-
-
-        if (specLower.contains("pm") || 
-            specLower.contains("ba")) {
-                
-            return internCategoryRepository.findByCategoryName("PMBA").orElse(null);
-        }
-
-        if (specLower.contains("ai")) {
-            return internCategoryRepository.findByCategoryName("AI").orElse(null);
-
-        }
-
-        // If no match is found, you can return null or a "General" category
-        return null;
-    }
-    
-    /**
-     * Extract field value from JSON node, supporting both new and old field names
-     */
-    private String extractField(JsonNode node, String newFieldName, String oldFieldName) {
-        if (node.has(newFieldName)) {
-            return node.get(newFieldName).asText();
-        } else if (node.has(oldFieldName)) {
-            return node.get(oldFieldName).asText();
-        }
-        return null;
-    }
-    
-    /**
-     * Parse training date from JSON node, supporting both new ISO format and old format
-     */
-    private LocalDate parseTrainingDate(JsonNode node, String newFieldName, String oldFieldName, 
-                                      DateTimeFormatter isoFormatter, DateTimeFormatter oldFormatter) {
-        String dateString = extractField(node, newFieldName, oldFieldName);
-        if (dateString == null || dateString.trim().isEmpty()) {
-            return null;
-        }
-        
-        try {
-            // Try ISO format first (new format)
-            return LocalDate.parse(dateString, isoFormatter);
-        } catch (Exception e1) {
-            try {
-                // Try old format (M/d/yyyy) - extract date part if it has time component
-                String datePart = dateString.split(" ")[0];
-                return LocalDate.parse(datePart, oldFormatter);
-            } catch (Exception e2) {
-                System.err.println("Unable to parse date: " + dateString + ". Error: " + e2.getMessage());
-                return null;
-            }
-        }
+        internAuthUserLinkService.invalidate(id);
     }
 }
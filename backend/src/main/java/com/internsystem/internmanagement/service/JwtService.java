@@ -1,27 +1,24 @@
 package com.internsystem.internmanagement.service;
 
 import com.internsystem.internmanagement.entity.AuthUser;
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 
 @Service
 public class JwtService {
     
-    @Value("${jwt.secret:mySecretKey}")
-    private String jwtSecret;
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
     
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long jwtExpiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
-    
     public String generateToken(AuthUser user) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpiration);
         
@@ -29,31 +26,20 @@ public class JwtService {
                 .setSubject(user.getEmail())
                 .claim("userId", user.getId())
                 .claim("role", user.getRole().toString())
+                .claim("traineeId", user.getTraineeId())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(jwtTokenVerifier.getSigningKey())
                 .compact();
     }
     
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+        return jwtTokenVerifier.verify(token)
+                .map(AuthenticatedUser::getEmail)
+                .orElseThrow(() -> new JwtException("Invalid token"));
     }
     
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return jwtTokenVerifier.verify(token).isPresent();
     }
 }
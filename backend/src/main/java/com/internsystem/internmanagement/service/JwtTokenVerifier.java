@@ -0,0 +1,140 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.AuthUser;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies JWTs and reads the user from their claims. The signing key and the parser are built once,
+ * at startup, and shared by all requests (both are immutable).
+ *
+ * Verified tokens are kept in a bounded LRU cache until they expire, so a client sending the same
+ * bearer token again skips signature verification and claims parsing. Entries are keyed by the SHA-256
+ * digest of the token, so the tokens themselves are not held in memory. Invalid tokens are not cached.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private static final long NOT_CACHEABLE = -1L;
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int maxCachedTokens;
+
+    private final Map<String, VerifiedToken> verifiedTokens;
+
+    public JwtTokenVerifier(@Value("${jwt.secret:mySecretKey}") String jwtSecret,
+                            @Value("${jwt.verified-cache.max-entries:10000}") int maxCachedTokens) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.maxCachedTokens = maxCachedTokens;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > JwtTokenVerifier.this.maxCachedTokens;
+            }
+        };
+    }
+
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * @return the user of the token, or empty when it is invalid, expired or lacks the user claims
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (maxCachedTokens <= 0) {
+            return parse(token).map(VerifiedToken::getUser);
+        }
+
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (verifiedTokens) {
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (now < cached.getExpiresAtMillis()) {
+                    return Optional.of(cached.getUser());
+                }
+                verifiedTokens.remove(digest);
+            }
+        }
+
+        Optional<VerifiedToken> verified = parse(token);
+        if (verified.isPresent() && verified.get().getExpiresAtMillis() != NOT_CACHEABLE) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(digest, verified.get());
+            }
+        }
+        return verified.map(VerifiedToken::getUser);
+    }
+
+    // For tests
+    int cachedTokenCount() {
+        synchronized (verifiedTokens) {
+            return verifiedTokens.size();
+        }
+    }
+
+    private Optional<VerifiedToken> parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+
+            Long userId = claims.get("userId", Long.class);
+            String role = claims.get("role", String.class);
+            if (claims.getSubject() == null || userId == null || role == null) {
+                return Optional.empty();
+            }
+            AuthenticatedUser user = new AuthenticatedUser(userId, claims.getSubject(), AuthUser.Role.valueOf(role),
+                    claims.get("traineeId", String.class));
+            // JwtService always sets an expiry; a token without one is accepted but not cached
+            Date expiration = claims.getExpiration();
+            return Optional.of(new VerifiedToken(user, expiration != null ? expiration.getTime() : NOT_CACHEABLE));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final AuthenticatedUser user;
+        private final long expiresAtMillis;
+
+        VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {
+            this.user = user;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        AuthenticatedUser getUser() {
+            return user;
+        }
+
+        long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.internsystem.internmanagement.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords, each tagged with a rank. {@link #bestRank} scans
+ * a text once, whatever the number of keywords, and returns the lowest rank of any keyword found in it
+ * as a substring. Matching is case-insensitive. Immutable once built, so it can be shared by threads.
+ */
+class KeywordMatcher {
+
+    static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private int[] failure;
+    // Lowest rank of a keyword ending at the state or at any state on its failure chain
+    private int[] bestRank;
+
+    /**
+     * @param keywordRanks keyword to rank; blank keywords are ignored
+     */
+    KeywordMatcher(Map<String, Integer> keywordRanks) {
+        List<Integer> ranks = new ArrayList<>();
+        transitions.add(new HashMap<>());
+        ranks.add(NO_MATCH);
+
+        for (Map.Entry<String, Integer> entry : keywordRanks.entrySet()) {
+            String keyword = entry.getKey().trim().toLowerCase();
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = transitions.get(state).get(keyword.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(keyword.charAt(i), next);
+                    transitions.add(new HashMap<>());
+                    ranks.add(NO_MATCH);
+                }
+                state = next;
+            }
+            ranks.set(state, Math.min(ranks.get(state), entry.getValue()));
+        }
+
+        buildFailureLinks(ranks);
+    }
+
+    /**
+     * Breadth-first, so the failure state of every state is final before its children are visited.
+     */
+    private void buildFailureLinks(List<Integer> ranks) {
+        failure = new int[transitions.size()];
+        bestRank = new int[transitions.size()];
+        Arrays.fill(bestRank, NO_MATCH);
+        bestRank[0] = ranks.get(0);
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(0).values()) {
+            failure[child] = 0;
+            bestRank[child] = ranks.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                failure[child] = next(failure[state], edge.getKey());
+                bestRank[child] = Math.min(ranks.get(child), bestRank[failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            Integer target = transitions.get(state).get(c);
+            if (target != null) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * @return the lowest rank of the keywords contained in the text, or {@link #NO_MATCH}
+     */
+    int bestRank(String text) {
+        int best = NO_MATCH;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, Character.toLowerCase(text.charAt(i)));
+            best = Math.min(best, bestRank[state]);
+        }
+        return best;
+    }
+}
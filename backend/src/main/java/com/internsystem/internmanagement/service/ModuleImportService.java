@@ -1,45 +1,32 @@
 package com.internsystem.internmanagement.service;
 
-import com.internsystem.internmanagement.entity.Function;
 import com.internsystem.internmanagement.entity.FunctionStatus;
-import com.internsystem.internmanagement.entity.Intern;
-import com.internsystem.internmanagement.entity.Module;
 import com.internsystem.internmanagement.entity.ModuleStatus;
-import com.internsystem.internmanagement.entity.Project;
-import com.internsystem.internmanagement.entity.TeamMember;
-import com.internsystem.internmanagement.repository.FunctionRepository;
 import com.internsystem.internmanagement.repository.InternRepository;
 import com.internsystem.internmanagement.repository.ModuleRepository;
 import com.internsystem.internmanagement.repository.ProjectRepository;
 import com.internsystem.internmanagement.repository.TeamMemberRepository;
-import com.internsystem.internmanagement.dto.ProjectTeamDTO;
-import org.apache.poi.ss.usermodel.BorderStyle;
+import com.internsystem.internmanagement.dto.ModuleExportRow;
+import com.internsystem.internmanagement.dto.ModuleIdView;
+import com.internsystem.internmanagement.dto.ProjectMemberView;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
 @Service
@@ -55,13 +42,21 @@ public class ModuleImportService {
     private ModuleRepository moduleRepository;
 
     @Autowired
-    private FunctionRepository functionRepository;
+    private TeamMemberRepository teamMemberRepository;
 
     @Autowired
-    private TeamMemberRepository teamMemberRepository;
+    private SpreadsheetStreamReader spreadsheetStreamReader;
 
     @Autowired
-    private ProjectTeamService projectTeamService;
+    private CsvStreamReader csvStreamReader;
+
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+
+    @Autowired
+    private ImportRowValidator importRowValidator;
+
+    private static final int COLUMN_COUNT = 8; // Expecting 8 columns (added function_status)
 
     @Transactional
     public ModuleImportResult importModulesAndFunctions(MultipartFile file, Long projectId) {
@@ -69,351 +64,219 @@ public class ModuleImportService {
         
         try {
             // Validate project exists
-            Project project = projectRepository.findById(projectId).orElse(null);
-            if (project == null) {
+            if (!projectRepository.existsById(projectId)) {
                 result.addError(0, "Project not found with ID: " + projectId);
                 return result;
             }
 
-            // Get team members for this project to validate assignments
-            Set<Long> validInternIds = getValidInternIdsForProject(projectId);
-            
-            List<String[]> dataRows = new ArrayList<>();
-            String filename = file.getOriginalFilename();
-            
-            if (filename != null && filename.toLowerCase().endsWith(".xlsx")) {
-                dataRows = parseExcelFile(file);
-            } else {
-                dataRows = parseCsvFile(file);
-            }
+            // Validate every row in parallel before any row is written; invalid rows are skipped below
+            ImportRowValidator.Run validation = importRowValidator.start(ModuleImportService::validateRow);
+            readRows(file, validation::accept);
+            ImportRowValidator.Report report = validation.finish();
+            report.getErrorsByLine().forEach((lineNumber, problems) -> {
+                result.addError(lineNumber, String.join("; ", problems));
+                result.incrementFailedCount();
+            });
+
+            // Members of the project's teams, the only interns rows may assign
+            ProjectMembers projectMembers = new ProjectMembers(teamMemberRepository.findMembersOfProject(projectId));
             
+            // Sort the rows into inserts, updates and no-ops against the stored modules and functions
+            ModuleUpsertPlan plan = new ModuleUpsertPlan(moduleRepository.findExportRowsByProjectId(projectId));
+
             // Process in two phases: modules first, then functions
-            Map<String, Module> createdModules = processModuleDataFromRows(dataRows, result, project, validInternIds);
-            processFunctionDataFromRows(dataRows, result, createdModules, validInternIds);
+            Set<String> processedModules = new HashSet<>();
+            readRows(file, (lineNumber, values) -> {
+                if (report.isValid(lineNumber)) {
+                    processModuleRow(lineNumber, values, result, plan, projectMembers, processedModules);
+                }
+            });
+            writeModules(projectId, plan);
+
+            readRows(file, (lineNumber, values) -> {
+                if (report.isValid(lineNumber)) {
+                    processFunctionRow(lineNumber, values, result, plan, processedModules, projectMembers);
+                }
+            });
+            importBatchWriter.insertFunctions(plan.getFunctionInserts());
+            importBatchWriter.updateFunctions(plan.getFunctionUpdates());
             
         } catch (Exception e) {
-            result.addError(0, "File processing error: " + e.getMessage());
+            // The batches run through JdbcTemplate, whose errors do not mark the transaction on their own:
+            // roll back the modules and functions written so far instead of committing half the file
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            result.discardSuccesses();
+            result.addError(0, "File processing error, nothing was imported: " + e.getMessage());
         }
         
         return result;
     }
 
-    private Set<Long> getValidInternIdsForProject(Long projectId) {
-        Set<Long> validInternIds = new HashSet<>();
-        
-        // Get all teams assigned to this project
-        List<ProjectTeamDTO> projectTeams = projectTeamService.getTeamsByProjectId(projectId);
-        
-        // Get all team members from these teams
-        for (ProjectTeamDTO projectTeam : projectTeams) {
-            List<TeamMember> teamMembers = teamMemberRepository.findByTeamTeamId(projectTeam.getTeamId());
-            for (TeamMember teamMember : teamMembers) {
-                validInternIds.add(teamMember.getIntern().getInternId());
-            }
+    /**
+     * Checks of a single row that need no database access. Runs on the validation stage's worker
+     * threads, so it must stay free of side effects.
+     */
+    private static List<String> validateRow(String[] values) {
+        if (values.length < COLUMN_COUNT) {
+            return List.of("Invalid format: expected 8 columns");
         }
         
-        return validInternIds;
+        List<String> problems = new ArrayList<>();
+        if (values[0].trim().isEmpty() || values[4].trim().isEmpty()) {
+            problems.add("Module name and function name are required");
+        }
+        if (values[6].trim().isEmpty()) {
+            problems.add("Function developer intern code is required");
+        }
+        return problems;
     }
 
-    private List<String[]> parseCsvFile(MultipartFile file) throws Exception {
-        List<String[]> dataRows = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue; // Skip header
-                }
-                if (!line.trim().isEmpty()) {
-                    String[] values = parseCsvLineInternal(line);
-                    dataRows.add(values);
-                }
+    /**
+     * Intern codes of the project's team members, loaded once per import. Codes outside the project
+     * are only looked up to tell a missing intern from one in another team, once per code.
+     */
+    private class ProjectMembers {
+        private final Map<String, Long> internIdsByCode = new HashMap<>();
+        private final Map<String, Boolean> otherCodesExist = new HashMap<>();
+
+        ProjectMembers(List<ProjectMemberView> members) {
+            for (ProjectMemberView member : members) {
+                internIdsByCode.put(member.getInternCode(), member.getInternId());
             }
         }
-        
-        return dataRows;
+
+        /**
+         * @return the id of the member with this code, or null if the code is not a member of the
+         * project's teams
+         */
+        Long getMemberId(String internCode) {
+            return internIdsByCode.get(internCode);
+        }
+
+        boolean internExists(String internCode) {
+            return otherCodesExist.computeIfAbsent(internCode, internRepository::existsByInternCode);
+        }
     }
-    
-    private List<String[]> parseExcelFile(MultipartFile file) throws Exception {
-        List<String[]> dataRows = new ArrayList<>();
+
+    private void readRows(MultipartFile file, SpreadsheetStreamReader.RowHandler handler) throws Exception {
+        String filename = file.getOriginalFilename();
         
-        try (InputStream inputStream = file.getInputStream()) {
-            Workbook workbook;
+        if (SpreadsheetStreamReader.isSpreadsheet(filename)) {
+            spreadsheetStreamReader.read(filename, file, COLUMN_COUNT, handler);
+        } else {
+            csvStreamReader.read(file, handler);
+        }
+    }
+
+    private void processModuleRow(int lineNumber, String[] values, ModuleImportResult result, ModuleUpsertPlan plan,
+                                  ProjectMembers projectMembers, Set<String> processedModules) {
+        try {
+            String moduleName = values[0].trim();
+            String moduleDescription = values[1].trim();
+            String moduleOwnerInternCode = values[2].trim();
+            String moduleStatus = values[3].trim();
             
-            if (file.getOriginalFilename().toLowerCase().endsWith(".xlsx")) {
-                workbook = new XSSFWorkbook(inputStream);
-            } else {
-                workbook = new HSSFWorkbook(inputStream);
+            if (moduleName.isEmpty() || processedModules.contains(moduleName)) {
+                return; // Skip if already processed or empty
             }
             
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            // Skip header row
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
+            // Validate module owner
+            if (moduleOwnerInternCode.isEmpty()) {
+                result.addError(lineNumber, "Module owner intern code is required");
+                result.incrementFailedCount();
+                return;
             }
             
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                String[] values = new String[8]; // Expecting 8 columns (added function_status)
-                
-                for (int i = 0; i < 8; i++) {
-                    Cell cell = row.getCell(i);
-                    if (cell == null) {
-                        values[i] = "";
-                    } else {
-                        switch (cell.getCellType()) {
-                            case STRING:
-                                values[i] = cell.getStringCellValue();
-                                break;
-                            case NUMERIC:
-                                values[i] = String.valueOf((long) cell.getNumericCellValue());
-                                break;
-                            case BOOLEAN:
-                                values[i] = String.valueOf(cell.getBooleanCellValue());
-                                break;
-                            case FORMULA:
-                                values[i] = cell.getCellFormula();
-                                break;
-                            default:
-                                values[i] = "";
-                        }
-                    }
-                }
-                
-                // Only add rows that have at least some data
-                boolean hasData = false;
-                for (String value : values) {
-                    if (value != null && !value.trim().isEmpty()) {
-                        hasData = true;
-                        break;
-                    }
-                }
-                
-                if (hasData) {
-                    dataRows.add(values);
+            // Validate that intern is part of teams assigned to this project
+            Long moduleOwnerId = projectMembers.getMemberId(moduleOwnerInternCode);
+            if (moduleOwnerId == null) {
+                if (!projectMembers.internExists(moduleOwnerInternCode)) {
+                    result.addError(lineNumber, "Module owner intern not found: " + moduleOwnerInternCode);
+                } else {
+                    result.addError(lineNumber, "Module owner " + moduleOwnerInternCode + " is not part of any team assigned to this project");
                 }
+                result.incrementFailedCount();
+                return;
             }
             
-            workbook.close();
+            plan.upsertModule(moduleName, moduleDescription, moduleOwnerId, parseModuleStatus(moduleStatus));
+            processedModules.add(moduleName);
+            
+        } catch (Exception e) {
+            result.addError(lineNumber, "Module processing error: " + e.getMessage());
+            result.incrementFailedCount();
         }
-        
-        return dataRows;
     }
 
-    private Map<String, Module> processModuleDataFromRows(List<String[]> dataRows, ModuleImportResult result, Project project, Set<Long> validInternIds) {
-        Map<String, Module> moduleMap = new HashMap<>();
-        Set<String> processedModules = new HashSet<>();
-        
-        for (int i = 0; i < dataRows.size(); i++) {
-            try {
-                String[] values = dataRows.get(i);
-                if (values.length < 8) {
-                    result.addError(i + 2, "Invalid format: expected 8 columns");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                String moduleName = values[0].trim();
-                String moduleDescription = values[1].trim();
-                String moduleOwnerInternCode = values[2].trim();
-                String moduleStatus = values[3].trim();
-                
-                if (moduleName.isEmpty() || processedModules.contains(moduleName)) {
-                    continue; // Skip if already processed or empty
-                }
-                
-                // Validate module owner
-                if (moduleOwnerInternCode.isEmpty()) {
-                    result.addError(i + 2, "Module owner intern code is required");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                Intern moduleOwner = getInternByCode(moduleOwnerInternCode);
-                if (moduleOwner == null) {
-                    result.addError(i + 2, "Module owner intern not found: " + moduleOwnerInternCode);
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                // Validate that intern is part of teams assigned to this project
-                if (!validInternIds.contains(moduleOwner.getInternId())) {
-                    result.addError(i + 2, "Module owner " + moduleOwnerInternCode + " is not part of any team assigned to this project");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                Module module = createOrGetModule(moduleName, moduleDescription, project, moduleOwner, moduleStatus);
-                moduleMap.put(moduleName, module);
-                processedModules.add(moduleName);
-                
-            } catch (Exception e) {
-                result.addError(i + 2, "Module processing error: " + e.getMessage());
+    private void processFunctionRow(int lineNumber, String[] values, ModuleImportResult result, ModuleUpsertPlan plan,
+                                    Set<String> processedModules, ProjectMembers projectMembers) {
+        try {
+            String moduleName = values[0].trim();
+            String functionName = values[4].trim();
+            String functionDescription = values[5].trim();
+            String functionDeveloperInternCode = values[6].trim();
+            String functionStatus = values[7].trim();
+            
+            if (!processedModules.contains(moduleName)) {
+                result.addError(lineNumber, "Module not found: " + moduleName);
                 result.incrementFailedCount();
+                return;
             }
-        }
-        
-        return moduleMap;
-    }
-
-    private void processFunctionDataFromRows(List<String[]> dataRows, ModuleImportResult result, Map<String, Module> moduleMap, Set<Long> validInternIds) {
-        for (int i = 0; i < dataRows.size(); i++) {
-            try {
-                String[] values = dataRows.get(i);
-                if (values.length < 8) {
-                    continue; // Already handled in module processing
-                }
-                
-                String moduleName = values[0].trim();
-                String functionName = values[4].trim();
-                String functionDescription = values[5].trim();
-                String functionDeveloperInternCode = values[6].trim();
-                String functionStatus = values[7].trim(); // Added function_status
-                
-                // Validate required fields
-                if (moduleName.isEmpty() || functionName.isEmpty()) {
-                    result.addError(i + 2, "Module name and function name are required");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                Module module = moduleMap.get(moduleName);
-                if (module == null) {
-                    result.addError(i + 2, "Module not found: " + moduleName);
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                // Validate function developer
-                if (functionDeveloperInternCode.isEmpty()) {
-                    result.addError(i + 2, "Function developer intern code is required");
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                Intern functionDeveloper = getInternByCode(functionDeveloperInternCode);
-                if (functionDeveloper == null) {
-                    result.addError(i + 2, "Function developer intern not found: " + functionDeveloperInternCode);
-                    result.incrementFailedCount();
-                    continue;
-                }
-                
-                // Validate that intern is part of teams assigned to this project
-                if (!validInternIds.contains(functionDeveloper.getInternId())) {
-                    result.addError(i + 2, "Function developer " + functionDeveloperInternCode + " is not part of any team assigned to this project");
-                    result.incrementFailedCount();
-                    continue;
+            
+            // Validate that intern is part of teams assigned to this project
+            Long functionDeveloperId = projectMembers.getMemberId(functionDeveloperInternCode);
+            if (functionDeveloperId == null) {
+                if (!projectMembers.internExists(functionDeveloperInternCode)) {
+                    result.addError(lineNumber, "Function developer intern not found: " + functionDeveloperInternCode);
+                } else {
+                    result.addError(lineNumber, "Function developer " + functionDeveloperInternCode + " is not part of any team assigned to this project");
                 }
-                
-                createOrGetFunction(functionName, functionDescription, module, functionDeveloper, functionStatus);
-                result.incrementSuccessCount();
-                
-            } catch (Exception e) {
-                result.addError(i + 2, "Function processing error: " + e.getMessage());
                 result.incrementFailedCount();
+                return;
             }
+            
+            plan.upsertFunction(plan.getModule(moduleName), functionName, functionDescription,
+                    functionDeveloperId, parseFunctionStatus(functionStatus));
+            result.incrementSuccessCount();
+            
+        } catch (Exception e) {
+            result.addError(lineNumber, "Function processing error: " + e.getMessage());
+            result.incrementFailedCount();
         }
     }
 
-    private Intern getInternByCode(String internCode) {
-        return internRepository.findByInternCode(internCode).orElse(null);
-    }
+    /**
+     * Writes the module changes of the plan and fills in the ids of the new modules, which their
+     * functions need.
+     */
+    private void writeModules(Long projectId, ModuleUpsertPlan plan) {
+        List<ModuleUpsertPlan.ModuleState> inserts = plan.getModuleInserts();
+        importBatchWriter.insertModules(projectId, inserts);
+        importBatchWriter.updateModules(plan.getModuleUpdates());
 
-    private Module createOrGetModule(String moduleName, String description, Project project, Intern owner, String status) {
-        // Check if module already exists for this project
-        Optional<Module> existingModule = moduleRepository.findByModuleNameAndProjectProjectId(moduleName, project.getProjectId());
-        
-        if (existingModule.isPresent()) {
-            // Update existing module
-            Module module = existingModule.get();
-            module.setDescription(description);
-            module.setOwnerIntern(owner);
-            try {
-                module.setStatus(ModuleStatus.valueOf(status.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                module.setStatus(ModuleStatus.NOT_STARTED);
+        if (!inserts.isEmpty()) {
+            Map<String, ModuleUpsertPlan.ModuleState> insertsByName = new HashMap<>();
+            inserts.forEach(module -> insertsByName.put(module.getModuleName(), module));
+            for (ModuleIdView created : moduleRepository.findIdsByProjectIdAndNames(projectId, insertsByName.keySet())) {
+                insertsByName.get(created.getModuleName()).setModuleId(created.getModuleId());
             }
-            return moduleRepository.save(module);
-        } else {
-            // Create new module
-            Module module = new Module();
-            module.setModuleName(moduleName);
-            module.setDescription(description);
-            module.setProject(project);
-            module.setOwnerIntern(owner);
-            
-            try {
-                module.setStatus(ModuleStatus.valueOf(status.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                module.setStatus(ModuleStatus.NOT_STARTED);
-            }
-            
-            return moduleRepository.save(module);
         }
     }
 
-    private Function createOrGetFunction(String functionName, String description, Module module, Intern developer, String status) {
-        // Check if function already exists for this module
-        Optional<Function> existingFunction = functionRepository.findByFunctionNameAndModuleModuleId(functionName, module.getModuleId());
-        
-        if (existingFunction.isPresent()) {
-            // Update existing function
-            Function function = existingFunction.get();
-            function.setDescription(description);
-            function.setDeveloperIntern(developer);
-            
-            // Set function status
-            try {
-                function.setStatus(FunctionStatus.valueOf(status.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                function.setStatus(FunctionStatus.PENDING); // Default status
-            }
-            
-            return functionRepository.save(function);
-        } else {
-            // Create new function
-            Function function = new Function();
-            function.setFunctionName(functionName);
-            function.setDescription(description);
-            function.setModule(module);
-            function.setDeveloperIntern(developer);
-            
-            // Set function status
-            try {
-                function.setStatus(FunctionStatus.valueOf(status.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                function.setStatus(FunctionStatus.PENDING); // Default status
-            }
-            
-            return functionRepository.save(function);
+    private static ModuleStatus parseModuleStatus(String status) {
+        try {
+            return ModuleStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ModuleStatus.NOT_STARTED;
         }
     }
 
-    private String[] parseCsvLineInternal(String line) {
-        List<String> values = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder currentValue = new StringBuilder();
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                values.add(currentValue.toString());
-                currentValue = new StringBuilder();
-            } else {
-                currentValue.append(c);
-            }
+    private static FunctionStatus parseFunctionStatus(String status) {
+        try {
+            return FunctionStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return FunctionStatus.PENDING; // Default status
         }
-        
-        values.add(currentValue.toString());
-        return values.toArray(new String[0]);
     }
 
     public String exportModulesAndFunctions(Long projectId) {
@@ -422,73 +285,52 @@ public class ModuleImportService {
         // Add header
         csvBuilder.append("module_name,module_description,module_owner_intern_code,module_status,function_name,function_description,function_developer_intern_code,function_status\n");
         
-        // Get all modules for this project
-        List<Module> modules = moduleRepository.findByProjectProjectId(projectId);
-        
-        for (Module module : modules) {
-            List<Function> functions = functionRepository.findByModuleModuleId(module.getModuleId());
-            
-            if (functions.isEmpty()) {
-                // Module with no functions
-                csvBuilder.append(escapeForCsv(module.getModuleName())).append(",")
-                    .append(escapeForCsv(module.getDescription())).append(",")
-                    .append(escapeForCsv(module.getOwnerIntern().getInternCode())).append(",")
-                    .append(module.getStatus().toString()).append(",")
-                    .append(",") // function_name
+        // One row per function, or a single row for a module with no functions
+        for (ModuleExportRow row : moduleRepository.findExportRowsByProjectId(projectId)) {
+            csvBuilder.append(escapeForCsv(row.getModuleName())).append(",")
+                .append(escapeForCsv(row.getModuleDescription())).append(",")
+                .append(escapeForCsv(row.getOwnerInternCode())).append(",")
+                .append(row.getModuleStatus() != null ? row.getModuleStatus().toString() : "").append(",");
+            if (row.getFunctionId() == null) {
+                csvBuilder.append(",") // function_name
                     .append(",") // function_description
                     .append(",") // function_developer_intern_code
                     .append("\n"); // function_status
             } else {
-                // Module with functions
-                for (Function function : functions) {
-                    csvBuilder.append(escapeForCsv(module.getModuleName())).append(",")
-                        .append(escapeForCsv(module.getDescription())).append(",")
-                        .append(escapeForCsv(module.getOwnerIntern().getInternCode())).append(",")
-                        .append(module.getStatus().toString()).append(",")
-                        .append(escapeForCsv(function.getFunctionName())).append(",")
-                        .append(escapeForCsv(function.getDescription())).append(",")
-                        .append(escapeForCsv(function.getDeveloperIntern().getInternCode())).append(",")
-                        .append(function.getStatus() != null ? function.getStatus().toString() : "PENDING").append("\n");
-                }
+                csvBuilder.append(escapeForCsv(row.getFunctionName())).append(",")
+                    .append(escapeForCsv(row.getFunctionDescription())).append(",")
+                    .append(escapeForCsv(row.getDeveloperInternCode())).append(",")
+                    .append(row.getFunctionStatus() != null ? row.getFunctionStatus().toString() : "PENDING").append("\n");
             }
         }
         
         return csvBuilder.toString();
     }
 
-    public byte[] exportModulesAndFunctionsAsExcel(Long projectId) {
+    /**
+     * Writes the Excel export of a project's modules to {@code outputStream} through a streaming
+     * workbook, so only a small window of rows is on the heap.
+     */
+    @Transactional(readOnly = true)
+    public void exportModulesAndFunctionsAsExcel(Long projectId, OutputStream outputStream) throws IOException {
+        // Modules with their functions, one row per function
+        List<ModuleExportRow> rows = moduleRepository.findExportRowsByProjectId(projectId);
+
+        SXSSFWorkbook workbook = ExcelExportSupport.createWorkbook();
         try {
-            // Get all modules for this project
-            List<Module> modules = moduleRepository.findByProjectProjectId(projectId);
-            
-            // Create Excel workbook
-            Workbook workbook = new XSSFWorkbook();
             Sheet sheet = workbook.createSheet("Modules and Functions");
-            
-            // Create styles
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 10);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            
-            CellStyle dataStyle = workbook.createCellStyle();
-            Font dataFont = workbook.createFont();
-            dataFont.setFontHeightInPoints((short) 10);
-            dataStyle.setFont(dataFont);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            
+            ExcelExportSupport.Styles styles = new ExcelExportSupport.Styles(workbook);
+
+            // Set column widths
+            sheet.setColumnWidth(0, 25 * 256); // module_name
+            sheet.setColumnWidth(1, 40 * 256); // module_description
+            sheet.setColumnWidth(2, 15 * 256); // module_owner_intern_code
+            sheet.setColumnWidth(3, 15 * 256); // module_status
+            sheet.setColumnWidth(4, 25 * 256); // function_name
+            sheet.setColumnWidth(5, 40 * 256); // function_description
+            sheet.setColumnWidth(6, 15 * 256); // function_developer_intern_code
+            sheet.setColumnWidth(7, 15 * 256); // function_status
+
             // Create header row
             Row headerRow = sheet.createRow(0);
             headerRow.setHeight((short) 400);
@@ -500,85 +342,42 @@ public class ModuleImportService {
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
+                cell.setCellStyle(styles.header);
             }
             
             // Generate data rows
             int rowNum = 1;
-            for (Module module : modules) {
-                List<Function> functions = functionRepository.findByModuleModuleId(module.getModuleId());
-                
-                if (functions.isEmpty()) {
-                    // Module with no functions
-                    Row row = sheet.createRow(rowNum++);
-                    fillModuleRowWithStyle(row, module, null, dataStyle);
-                } else {
-                    // Module with functions
-                    for (Function function : functions) {
-                        Row row = sheet.createRow(rowNum++);
-                        fillModuleRowWithStyle(row, module, function, dataStyle);
-                    }
-                }
+            for (ModuleExportRow row : rows) {
+                fillModuleRowWithStyle(sheet.createRow(rowNum++), row, styles.data);
             }
-            
-            // Set column widths
-            sheet.setColumnWidth(0, 25 * 256); // module_name
-            sheet.setColumnWidth(1, 40 * 256); // module_description
-            sheet.setColumnWidth(2, 15 * 256); // module_owner_intern_code
-            sheet.setColumnWidth(3, 15 * 256); // module_status
-            sheet.setColumnWidth(4, 25 * 256); // function_name
-            sheet.setColumnWidth(5, 40 * 256); // function_description
-            sheet.setColumnWidth(6, 15 * 256); // function_developer_intern_code
-            sheet.setColumnWidth(7, 15 * 256); // function_status
-            
-            // Convert to byte array
-            java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
+
             workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
             workbook.close();
-            
-            return outputStream.toByteArray();
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate Excel export", e);
         }
     }
 
-    private void fillModuleRowWithStyle(Row row, Module module, Function function, CellStyle dataStyle) {
+    private void fillModuleRowWithStyle(Row row, ModuleExportRow exportRow, CellStyle dataStyle) {
         int cellNum = 0;
         
         // Module data
-        Cell cell0 = row.createCell(cellNum++);
-        cell0.setCellValue(module.getModuleName() != null ? module.getModuleName() : "");
-        cell0.setCellStyle(dataStyle);
-        
-        Cell cell1 = row.createCell(cellNum++);
-        cell1.setCellValue(module.getDescription() != null ? module.getDescription() : "");
-        cell1.setCellStyle(dataStyle);
-        
-        Cell cell2 = row.createCell(cellNum++);
-        cell2.setCellValue(module.getOwnerIntern() != null ? module.getOwnerIntern().getInternCode() : "");
-        cell2.setCellStyle(dataStyle);
-        
-        Cell cell3 = row.createCell(cellNum++);
-        cell3.setCellValue(module.getStatus() != null ? module.getStatus().toString() : "");
-        cell3.setCellStyle(dataStyle);
+        setTextCell(row, cellNum++, exportRow.getModuleName(), dataStyle);
+        setTextCell(row, cellNum++, exportRow.getModuleDescription(), dataStyle);
+        setTextCell(row, cellNum++, exportRow.getOwnerInternCode(), dataStyle);
+        setTextCell(row, cellNum++, exportRow.getModuleStatus() != null ? exportRow.getModuleStatus().toString() : null, dataStyle);
         
         // Function data
-        Cell cell4 = row.createCell(cellNum++);
-        cell4.setCellValue(function != null ? function.getFunctionName() : "");
-        cell4.setCellStyle(dataStyle);
-        
-        Cell cell5 = row.createCell(cellNum++);
-        cell5.setCellValue(function != null ? function.getDescription() : "");
-        cell5.setCellStyle(dataStyle);
-        
-        Cell cell6 = row.createCell(cellNum++);
-        cell6.setCellValue(function != null && function.getDeveloperIntern() != null ? function.getDeveloperIntern().getInternCode() : "");
-        cell6.setCellStyle(dataStyle);
-        
-        Cell cell7 = row.createCell(cellNum++);
-        cell7.setCellValue(function != null && function.getStatus() != null ? function.getStatus().toString() : "");
-        cell7.setCellStyle(dataStyle);
+        setTextCell(row, cellNum++, exportRow.getFunctionName(), dataStyle);
+        setTextCell(row, cellNum++, exportRow.getFunctionDescription(), dataStyle);
+        setTextCell(row, cellNum++, exportRow.getDeveloperInternCode(), dataStyle);
+        setTextCell(row, cellNum, exportRow.getFunctionStatus() != null ? exportRow.getFunctionStatus().toString() : null, dataStyle);
+    }
+
+    private void setTextCell(Row row, int column, String value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value != null ? value : "");
+        cell.setCellStyle(style);
     }
 
     private String escapeForCsv(String value) {
@@ -602,6 +401,14 @@ public class ModuleImportService {
             failedCount++;
         }
         
+        /**
+         * Counts the rows reported as imported as failed, after the import was rolled back.
+         */
+        public void discardSuccesses() {
+            failedCount += successCount;
+            successCount = 0;
+        }
+        
         public void addError(int lineNumber, String error) {
             errors.add("Line " + lineNumber + ": " + error);
         }
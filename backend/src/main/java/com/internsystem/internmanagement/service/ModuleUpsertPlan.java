@@ -0,0 +1,153 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.ModuleExportRow;
+import com.internsystem.internmanagement.entity.FunctionStatus;
+import com.internsystem.internmanagement.entity.ModuleStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Upsert engine of the module import. It starts from the project's stored modules and functions,
+ * loaded with one query, and sorts the rows of a file into inserts, real updates and no-ops in memory.
+ * Only the inserts and updates are written, so re-importing an unchanged sheet writes nothing and
+ * leaves {@code updatedAt} alone.
+ */
+public class ModuleUpsertPlan {
+
+    private final Map<String, ModuleState> modulesByName = new HashMap<>();
+    private final List<ModuleState> moduleInserts = new ArrayList<>();
+    private final Set<ModuleState> moduleUpdates = new LinkedHashSet<>();
+    private final List<FunctionState> functionInserts = new ArrayList<>();
+    private final Set<FunctionState> functionUpdates = new LinkedHashSet<>();
+
+    public ModuleUpsertPlan(List<ModuleExportRow> storedRows) {
+        for (ModuleExportRow row : storedRows) {
+            ModuleState module = modulesByName.computeIfAbsent(row.getModuleName(), name -> new ModuleState(
+                    row.getModuleId(), name, row.getModuleDescription(), row.getOwnerInternId(), row.getModuleStatus()));
+            if (row.getFunctionId() != null) {
+                module.getFunctionsByName().putIfAbsent(row.getFunctionName(), new FunctionState(
+                        row.getFunctionId(), module, row.getFunctionName(), row.getFunctionDescription(),
+                        row.getDeveloperInternId(), row.getFunctionStatus()));
+            }
+        }
+    }
+
+    public ModuleState getModule(String moduleName) {
+        return modulesByName.get(moduleName);
+    }
+
+    /**
+     * Records the state the file asks for. A new module is queued for insert, a stored one for update
+     * only if a value actually differs.
+     */
+    public ModuleState upsertModule(String moduleName, String description, Long ownerInternId, ModuleStatus status) {
+        ModuleState module = modulesByName.get(moduleName);
+        if (module == null) {
+            module = new ModuleState(null, moduleName, description, ownerInternId, status);
+            modulesByName.put(moduleName, module);
+            moduleInserts.add(module);
+        } else if (module.apply(description, ownerInternId, status) && module.getModuleId() != null) {
+            moduleUpdates.add(module);
+        }
+        return module;
+    }
+
+    /**
+     * Same as {@link #upsertModule} for a function; a function repeated in the file ends up with the
+     * values of its last row.
+     */
+    public void upsertFunction(ModuleState module, String functionName, String description,
+                               Long developerInternId, FunctionStatus status) {
+        FunctionState function = module.getFunctionsByName().get(functionName);
+        if (function == null) {
+            function = new FunctionState(null, module, functionName, description, developerInternId, status);
+            module.getFunctionsByName().put(functionName, function);
+            functionInserts.add(function);
+        } else if (function.apply(description, developerInternId, status) && function.getFunctionId() != null) {
+            functionUpdates.add(function);
+        }
+    }
+
+    public List<ModuleState> getModuleInserts() {
+        return moduleInserts;
+    }
+
+    public List<ModuleState> getModuleUpdates() {
+        return new ArrayList<>(moduleUpdates);
+    }
+
+    public List<FunctionState> getFunctionInserts() {
+        return functionInserts;
+    }
+
+    public List<FunctionState> getFunctionUpdates() {
+        return new ArrayList<>(functionUpdates);
+    }
+
+    @Getter
+    public static class ModuleState {
+        @Setter
+        private Long moduleId;
+        private final String moduleName;
+        private String description;
+        private Long ownerInternId;
+        private ModuleStatus status;
+        private final Map<String, FunctionState> functionsByName = new HashMap<>();
+
+        ModuleState(Long moduleId, String moduleName, String description, Long ownerInternId, ModuleStatus status) {
+            this.moduleId = moduleId;
+            this.moduleName = moduleName;
+            this.description = description;
+            this.ownerInternId = ownerInternId;
+            this.status = status;
+        }
+
+        private boolean apply(String description, Long ownerInternId, ModuleStatus status) {
+            boolean changed = !Objects.equals(this.description, description)
+                    || !Objects.equals(this.ownerInternId, ownerInternId)
+                    || this.status != status;
+            this.description = description;
+            this.ownerInternId = ownerInternId;
+            this.status = status;
+            return changed;
+        }
+    }
+
+    @Getter
+    public static class FunctionState {
+        private final Long functionId;
+        private final ModuleState module;
+        private final String functionName;
+        private String description;
+        private Long developerInternId;
+        private FunctionStatus status;
+
+        FunctionState(Long functionId, ModuleState module, String functionName, String description,
+                      Long developerInternId, FunctionStatus status) {
+            this.functionId = functionId;
+            this.module = module;
+            this.functionName = functionName;
+            this.description = description;
+            this.developerInternId = developerInternId;
+            this.status = status;
+        }
+
+        private boolean apply(String description, Long developerInternId, FunctionStatus status) {
+            boolean changed = !Objects.equals(this.description, description)
+                    || !Objects.equals(this.developerInternId, developerInternId)
+                    || this.status != status;
+            this.description = description;
+            this.developerInternId = developerInternId;
+            this.status = status;
+            return changed;
+        }
+    }
+}
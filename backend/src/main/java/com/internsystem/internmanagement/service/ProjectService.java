@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -33,6 +34,9 @@ public class ProjectService {
     @Autowired
     private InternAuthUserLinkService internAuthUserLinkService;
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
     public List<ProjectDTO> getAllProjects() {
         List<Project> projects = projectRepository.findAll();
         return projects.stream()
@@ -75,6 +79,9 @@ public class ProjectService {
         // Create project
         Project project = ProjectMapper.toEntity(dto, manager, managerAuthUser);
         Project saved = projectRepository.save(project);
+        if (managerAuthUser != null) {
+            authorizationService.invalidate(managerAuthUser.getId());
+        }
         
         // Assign teams if specified
         if (dto.getAssignedTeamIds() != null && !dto.getAssignedTeamIds().isEmpty()) {
@@ -123,6 +130,14 @@ public class ProjectService {
             managerAuthUser = authUserOpt.get();
         }
 
+        Long previousManagerAuthId = project.getProjectManagerAuthUser() != null
+                ? project.getProjectManagerAuthUser().getId() : null;
+        Long managerAuthId = managerAuthUser != null ? managerAuthUser.getId() : null;
+        if (!Objects.equals(previousManagerAuthId, managerAuthId)) {
+            authorizationService.invalidate(previousManagerAuthId);
+            authorizationService.invalidate(managerAuthId);
+        }
+
         // Update project fields
         project.setProjectName(dto.getProjectName());
         project.setDescription(dto.getDescription());
@@ -169,5 +184,6 @@ public class ProjectService {
         
         // Delete the project
         projectRepository.deleteById(id);
+        authorizationService.invalidateAll();
     }
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+package com.internsystem.internmanagement.service;
+
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an .xlsx or .xls upload row by row using the POI event model,
+ * so only the current row is held in memory instead of the whole workbook.
+ */
+@Component
+public class SpreadsheetStreamReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param lineNumber 1-based row number as shown in the spreadsheet
+         * @param values     cell values, always {@code columnCount} long, empty string for blank cells
+         */
+        void handleRow(int lineNumber, String[] values) throws Exception;
+    }
+
+    public static boolean isSpreadsheet(String filename) {
+        if (filename == null) {
+            return false;
+        }
+        String lower = filename.toLowerCase();
+        return lower.endsWith(".xlsx") || lower.endsWith(".xls");
+    }
+
+    /**
+     * Streams every data row (the header row is skipped) of the first sheet to the handler.
+     * Rows without any data are skipped.
+     */
+    public void read(String filename, InputStreamSource source, int columnCount, RowHandler handler) throws Exception {
+        try {
+            if (filename.toLowerCase().endsWith(".xlsx")) {
+                readXlsx(source, columnCount, handler);
+            } else {
+                readXls(source, columnCount, handler);
+            }
+        } catch (RowHandlerException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void readXlsx(InputStreamSource source, int columnCount, RowHandler handler) throws Exception {
+        readFromFile(source, ".xlsx", file -> {
+            try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            styles, null, strings, new XlsxRowCollector(columnCount, handler), new ImportDataFormatter(), true));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        });
+    }
+
+    private void readXls(InputStreamSource source, int columnCount, RowHandler handler) throws Exception {
+        readFromFile(source, ".xls", file -> {
+            try (POIFSFileSystem fileSystem = new POIFSFileSystem(file, true)) {
+                XlsRowCollector collector = new XlsRowCollector(columnCount, handler);
+                MissingRecordAwareHSSFListener missingRecordListener = new MissingRecordAwareHSSFListener(collector);
+                collector.formatListener = new FormatTrackingHSSFListener(missingRecordListener);
+                collector.workbookBuilder = new EventWorkbookBuilder.SheetRecordCollectingListener(collector.formatListener);
+
+                HSSFRequest request = new HSSFRequest();
+                request.addListenerForAllRecords(collector.workbookBuilder);
+                new HSSFEventFactory().processWorkbookEvents(request, fileSystem);
+            }
+        });
+    }
+
+    /**
+     * Passes the reader a file with the content of the source: the source's own file when it has one,
+     * otherwise a temporary copy (e.g. of a multipart upload) that is deleted afterwards. POI reads a
+     * workbook file on demand, whereas from a stream it first buffers the whole workbook in memory.
+     */
+    private static void readFromFile(InputStreamSource source, String suffix, WorkbookFileReader reader) throws Exception {
+        if (source instanceof Resource resource && resource.isFile()) {
+            reader.read(resource.getFile());
+            return;
+        }
+
+        Path tempFile = Files.createTempFile("spreadsheet-import-", suffix);
+        try {
+            try (InputStream inputStream = source.getInputStream()) {
+                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            reader.read(tempFile.toFile());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WorkbookFileReader {
+        void read(File file) throws Exception;
+    }
+
+    /**
+     * Mirrors the cell conversion used by the old DOM based parser: date formatted cells become
+     * ISO dates and other numbers are truncated to whole numbers (intern codes, IDs).
+     */
+    private static String formatNumber(double value, int formatIndex, String formatString) {
+        if (formatString != null && DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+            return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+        }
+        return String.valueOf((long) value);
+    }
+
+    private static class ImportDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return formatNumber(value, formatIndex, formatString);
+        }
+    }
+
+    /**
+     * Accumulates the cells of one row and hands completed rows to the {@link RowHandler}.
+     */
+    private abstract static class RowBuffer {
+        private final int columnCount;
+        private final RowHandler handler;
+        private final String[] values;
+        private boolean hasData;
+
+        RowBuffer(int columnCount, RowHandler handler) {
+            this.columnCount = columnCount;
+            this.handler = handler;
+            this.values = new String[columnCount];
+            Arrays.fill(values, "");
+        }
+
+        void setCell(int column, String value) {
+            if (column < 0 || column >= columnCount || value == null) {
+                return;
+            }
+            values[column] = value;
+            if (!value.trim().isEmpty()) {
+                hasData = true;
+            }
+        }
+
+        void finishRow(int rowIndex) {
+            try {
+                // Row 0 is the header
+                if (rowIndex > 0 && hasData) {
+                    handler.handleRow(rowIndex + 1, values.clone());
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RowHandlerException(e);
+            } finally {
+                Arrays.fill(values, "");
+                hasData = false;
+            }
+        }
+    }
+
+    private static class XlsxRowCollector extends RowBuffer implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private int nextColumn;
+
+        XlsxRowCollector(int columnCount, RowHandler handler) {
+            super(columnCount, handler);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            finishRow(rowNum);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            setCell(column, formattedValue);
+        }
+    }
+
+    private static class XlsRowCollector extends RowBuffer implements HSSFListener {
+        private FormatTrackingHSSFListener formatListener;
+        private EventWorkbookBuilder.SheetRecordCollectingListener workbookBuilder;
+        private HSSFWorkbook stubWorkbook;
+        private SSTRecord sstRecord;
+        private int sheetIndex = -1;
+
+        XlsRowCollector(int columnCount, RowHandler handler) {
+            super(columnCount, handler);
+        }
+
+        @Override
+        public void processRecord(org.apache.poi.hssf.record.Record record) {
+            if (record instanceof BOFRecord bof) {
+                if (bof.getType() == BOFRecord.TYPE_WORKSHEET) {
+                    sheetIndex++;
+                    if (stubWorkbook == null) {
+                        stubWorkbook = workbookBuilder.getStubHSSFWorkbook();
+                    }
+                }
+                return;
+            }
+            if (record instanceof SSTRecord sst) {
+                sstRecord = sst;
+                return;
+            }
+
+            // Only the first sheet is imported
+            if (sheetIndex != 0) {
+                return;
+            }
+
+            if (record instanceof LabelSSTRecord label) {
+                setCell(label.getColumn(), sstRecord != null ? sstRecord.getString(label.getSSTIndex()).toString() : "");
+            } else if (record instanceof LabelRecord label) {
+                setCell(label.getColumn(), label.getValue());
+            } else if (record instanceof NumberRecord number) {
+                setCell(number.getColumn(), formatNumber(number.getValue(),
+                        formatListener.getFormatIndex(number), formatListener.getFormatString(number)));
+            } else if (record instanceof BoolErrRecord boolErr && boolErr.isBoolean()) {
+                setCell(boolErr.getColumn(), String.valueOf(boolErr.getBooleanValue()));
+            } else if (record instanceof FormulaRecord formula) {
+                setCell(formula.getColumn(), HSSFFormulaParser.toFormulaString(stubWorkbook, formula.getParsedExpression()));
+            } else if (record instanceof LastCellOfRowDummyRecord lastCell) {
+                finishRow(lastCell.getRow());
+            }
+        }
+    }
+
+    /**
+     * Carries checked exceptions from a {@link RowHandler} through the POI callbacks.
+     */
+    private static class RowHandlerException extends RuntimeException {
+        RowHandlerException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -34,6 +35,9 @@ public class TeamService {
     @Autowired
     private InternAuthUserLinkService internAuthUserLinkService;
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
     public List<TeamDTO> getAllTeams() {
         return teamRepository.findAll()
                 .stream()
@@ -59,6 +63,7 @@ public class TeamService {
         
         Team team = TeamMapper.toEntity(dto, leader, leaderAuthUser);
         Team saved = teamRepository.save(team);
+        authorizationService.invalidate(leaderAuthUser.getId());
         
         // Automatically add the team leader as a team member if not already a member
         boolean isLeaderAlreadyMember = teamMemberRepository.existsByTeamTeamIdAndInternInternId(
@@ -113,6 +118,13 @@ public class TeamService {
             }
         }
 
+        Long previousLeaderAuthId = existing.getTeamLeaderAuthUser() != null
+                ? existing.getTeamLeaderAuthUser().getId() : null;
+        if (!Objects.equals(previousLeaderAuthId, leaderAuthUser.getId())) {
+            authorizationService.invalidate(previousLeaderAuthId);
+            authorizationService.invalidate(leaderAuthUser.getId());
+        }
+
         existing.setTeamName(dto.getTeamName());
         existing.setTeamLeader(leader);
         existing.setTeamLeaderAuthUser(leaderAuthUser);
@@ -131,5 +143,6 @@ public class TeamService {
         
         // Then delete the team
         teamRepository.deleteById(id);
+        authorizationService.invalidateAll();
     }
 }
@@ -0,0 +1,59 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.Intern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * One trainee as returned by the trainee API, with the fields the sync copies onto an intern.
+ */
+@Getter
+@AllArgsConstructor
+public class TraineeRecord {
+
+    private static final char SEPARATOR = '\u001F';
+    private static final String NULL_VALUE = "\u0000";
+
+    private final String internCode;
+    private final String name;
+    private final String institute;
+    private final String email;
+    private final String specialization;
+    private final LocalDate trainingStartDate;
+    private final LocalDate trainingEndDate;
+
+    /**
+     * SHA-256 of the synced fields, hex encoded. Equal hashes mean the intern already holds this record.
+     */
+    public String contentHash() {
+        StringBuilder content = new StringBuilder(128);
+        for (Object value : new Object[] {internCode, name, institute, email, specialization, trainingStartDate, trainingEndDate}) {
+            content.append(value != null ? value.toString() : NULL_VALUE).append(SEPARATOR);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Copies the synced fields onto the intern; the category is resolved by the caller.
+     */
+    public void applyTo(Intern intern) {
+        intern.setInternCode(internCode);
+        intern.setName(name);
+        intern.setInstitute(institute);
+        intern.setEmail(email);
+        intern.setSpecialization(specialization);
+        intern.setTrainingStartDate(trainingStartDate);
+        intern.setTrainingEndDate(trainingEndDate);
+    }
+}
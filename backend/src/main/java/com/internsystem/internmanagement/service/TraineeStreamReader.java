@@ -0,0 +1,162 @@
+package com.internsystem.internmanagement.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for the trainee API response. Trainees are read token by token with a Jackson
+ * {@link JsonParser} and handed over one at a time, so neither the response body nor a tree of it is
+ * ever held in memory.
+ *
+ * Both response formats are supported: a direct array of trainees (new) and an object with the array
+ * in {@code dataBundle} (legacy). Each trainee field has a new and an old name; the new one wins when
+ * a record has both.
+ */
+@Slf4j
+@Component
+public class TraineeStreamReader {
+
+    private static final DateTimeFormatter ISO_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter LEGACY_DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    private static final int INTERN_CODE = 0;
+    private static final int NAME = 1;
+    private static final int INSTITUTE = 2;
+    private static final int EMAIL = 3;
+    private static final int SPECIALIZATION = 4;
+    private static final int TRAINING_START_DATE = 5;
+    private static final int TRAINING_END_DATE = 6;
+
+    // New and old field name per slot
+    private static final String[][] FIELD_NAMES = {
+            {"internCode", "Trainee_ID"},
+            {"name", "Trainee_Name"},
+            {"institute", "Institute"},
+            {"email", "Trainee_Email"},
+            {"specialization", "field_of_spec_name"},
+            {"trainingStartDate", "Training_StartDate"},
+            {"trainingEndDate", "Training_EndDate"},
+    };
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Streams every trainee of the response to the handler.
+     *
+     * @return the number of trainees read
+     * @throws IOException when the body is not valid JSON or holds no trainees array
+     */
+    public int read(InputStream body, Consumer<TraineeRecord> handler) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (!moveToTraineesArray(parser)) {
+                throw new IOException("No trainees array found in API response");
+            }
+
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Trainees array is not terminated");
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    handler.accept(readTrainee(parser));
+                    count++;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Positions the parser on the START_ARRAY of the trainees, skipping any other top-level fields.
+     */
+    private static boolean moveToTraineesArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return true;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("dataBundle".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static TraineeRecord readTrainee(JsonParser parser) throws IOException {
+        String[] newValues = new String[FIELD_NAMES.length];
+        String[] oldValues = new String[FIELD_NAMES.length];
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            for (int slot = 0; slot < FIELD_NAMES.length; slot++) {
+                if (FIELD_NAMES[slot][0].equals(fieldName)) {
+                    newValues[slot] = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                }
+                if (FIELD_NAMES[slot][1].equals(fieldName)) {
+                    oldValues[slot] = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                }
+            }
+        }
+
+        return new TraineeRecord(
+                field(newValues, oldValues, INTERN_CODE),
+                field(newValues, oldValues, NAME),
+                field(newValues, oldValues, INSTITUTE),
+                field(newValues, oldValues, EMAIL),
+                field(newValues, oldValues, SPECIALIZATION),
+                parseTrainingDate(field(newValues, oldValues, TRAINING_START_DATE)),
+                parseTrainingDate(field(newValues, oldValues, TRAINING_END_DATE)));
+    }
+
+    private static String field(String[] newValues, String[] oldValues, int slot) {
+        return newValues[slot] != null ? newValues[slot] : oldValues[slot];
+    }
+
+    /**
+     * Parse a training date, supporting both the new ISO format and the old M/d/yyyy format
+     */
+    private static LocalDate parseTrainingDate(String dateString) {
+        if (dateString == null || dateString.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            // Try ISO format first (new format)
+            return LocalDate.parse(dateString, ISO_DATE_FORMAT);
+        } catch (Exception e1) {
+            try {
+                // Try old format (M/d/yyyy) - extract date part if it has time component
+                String datePart = dateString.split(" ")[0];
+                return LocalDate.parse(datePart, LEGACY_DATE_FORMAT);
+            } catch (Exception e2) {
+                log.warn("Unable to parse date: {}. Error: {}", dateString, e2.getMessage());
+                return null;
+            }
+        }
+    }
+}
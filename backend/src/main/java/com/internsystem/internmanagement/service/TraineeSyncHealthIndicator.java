@@ -0,0 +1,44 @@
+package com.internsystem.internmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the trainee API sync as the {@code traineeSync} component of {@code /actuator/health}. It is
+ * not part of the liveness or readiness groups: the app serves requests with the interns it already has
+ * while the upstream API is slow or down.
+ */
+@Component("traineeSync")
+public class TraineeSyncHealthIndicator extends AbstractHealthIndicator {
+
+    @Autowired
+    private TraineeSyncStatus traineeSyncStatus;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        // Judged by the last finished sync, so a sync in progress does not change the status
+        if (traineeSyncStatus.getLastError() != null) {
+            builder.down();
+        } else if (traineeSyncStatus.getLastSuccessAt() != null) {
+            builder.up();
+        } else {
+            builder.unknown();
+        }
+        builder.withDetail("state", traineeSyncStatus.getState());
+        addDetail(builder, "lastStartedAt", traineeSyncStatus.getLastStartedAt());
+        addDetail(builder, "lastSuccessAt", traineeSyncStatus.getLastSuccessAt());
+        addDetail(builder, "lastFailureAt", traineeSyncStatus.getLastFailureAt());
+        addDetail(builder, "lastError", traineeSyncStatus.getLastError());
+        if (traineeSyncStatus.getLastSuccessAt() != null) {
+            builder.withDetail("lastTraineeCount", traineeSyncStatus.getLastTraineeCount());
+        }
+    }
+
+    private static void addDetail(Health.Builder builder, String key, Object value) {
+        if (value != null) {
+            builder.withDetail(key, value);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.InternSyncView;
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.repository.InternRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies the active trainees from the trainee API onto interns. Runs once after startup and then on a
+ * schedule, always on the traineeSyncExecutor thread.
+ *
+ * The response is streamed through {@link TraineeStreamReader}, so trainees are written while it is
+ * still being read. Each trainee record is hashed and compared with the hash stored on its intern, so
+ * only new and changed trainees are written, in chunks of {@code trainee.sync.batch-size} that are
+ * written in parallel, one transaction each. A sync in which nothing changed costs one query.
+ *
+ * Concurrent chunks can deadlock on MySQL (their batched inserts take gap and unique-key locks on
+ * interns and auth), so a chunk whose transaction loses a deadlock or times out on a lock is rolled
+ * back and written again, up to {@code trainee.sync.chunk-attempts} times.
+ */
+@Slf4j
+@Service
+public class TraineeSyncService {
+
+    @Autowired
+    private InternRepository internRepository;
+
+    @Autowired
+    private InternCategoryClassifier internCategoryClassifier;
+
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+
+    @Autowired
+    private AuthRoleService authRoleService;
+
+    @Autowired
+    private InternAuthUserLinkService internAuthUserLinkService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private TraineeSyncStatus traineeSyncStatus;
+
+    @Autowired
+    private TraineeStreamReader traineeStreamReader;
+
+    @Autowired
+    @Qualifier("traineeApiRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("traineeSyncExecutor")
+    private ThreadPoolTaskExecutor traineeSyncExecutor;
+
+    @Autowired
+    @Qualifier("traineeSyncWorkerExecutor")
+    private ThreadPoolTaskExecutor traineeSyncWorkerExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${trainee.api.secret}")
+    private String secretKey;
+
+    @Value("${trainee.api.active-trainees-url:https://prohub.slt.com.lk/ProhubTrainees/api/MainApi/AllActiveTrainees}")
+    private String activeTraineesApiUrl;
+
+    @Value("${trainee.sync.batch-size:500}")
+    private int batchSize;
+
+    @Value("${trainee.sync.chunk-attempts:3}")
+    private int chunkAttempts;
+
+    private Timer chunkTimer;
+    private DistributionSummary chunkThroughput;
+    private Counter insertedCounter;
+    private Counter updatedCounter;
+    private Counter retryCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        chunkTimer = Timer.builder("trainee.sync.chunk.duration")
+                .description("Time to write one chunk of new and changed trainees")
+                .register(meterRegistry);
+        chunkThroughput = DistributionSummary.builder("trainee.sync.chunk.throughput")
+                .description("Trainees written per second, per chunk")
+                .baseUnit("trainees/s")
+                .register(meterRegistry);
+        insertedCounter = Counter.builder("trainee.sync.interns.written")
+                .description("Interns written by the trainee sync")
+                .tag("operation", "insert")
+                .register(meterRegistry);
+        updatedCounter = Counter.builder("trainee.sync.interns.written")
+                .description("Interns written by the trainee sync")
+                .tag("operation", "update")
+                .register(meterRegistry);
+        retryCounter = Counter.builder("trainee.sync.chunk.retries")
+                .description("Chunk transactions rolled back after a deadlock or lock timeout and written again")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the first trainee sync once the application is up. It runs on its own thread, so startup and
+     * readiness do not wait for the trainee API; progress is reported by the traineeSync health indicator.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncOnStartup() {
+        startSync();
+    }
+
+    @Scheduled(cron = "${trainee.sync.cron:0 0 * * * *}")
+    public void syncOnSchedule() {
+        startSync();
+    }
+
+    private void startSync() {
+        try {
+            traineeSyncExecutor.execute(this::syncAllInternsFromApi);
+        } catch (TaskRejectedException e) {
+            log.info("Trainee sync already queued, skipping");
+        }
+    }
+
+    public void syncAllInternsFromApi() {
+        if (!traineeSyncStatus.tryStart()) {
+            log.info("Trainee sync already running, skipping");
+            return;
+        }
+        SyncRun run = null;
+        try {
+            String requestBody = String.format("{\"secretKey\":\"%s\"}", secretKey);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
+
+            // The response is read while it arrives and trainees are written a chunk at a time
+            run = new SyncRun();
+            SyncRun currentRun = run;
+            Integer apiInternCount = restTemplate.execute(activeTraineesApiUrl, HttpMethod.POST,
+                    restTemplate.httpEntityCallback(request), response -> {
+                        if (response.getStatusCode() != HttpStatus.OK) {
+                            log.error("Failed to sync interns: {}", response.getStatusCode());
+                            traineeSyncStatus.recordFailure("Trainee API returned " + response.getStatusCode());
+                            return null;
+                        }
+                        return traineeStreamReader.read(response.getBody(), currentRun::accept);
+                    });
+            if (apiInternCount == null) {
+                run.awaitChunksQuietly();
+                statsService.setActiveInternsFromApi(0);
+                return;
+            }
+            run.finish();
+
+            log.info("API returned {} active interns", apiInternCount);
+            statsService.setActiveInternsFromApi(apiInternCount);
+            log.info("Trainee sync finished: {} created, {} updated, {} unchanged, {} skipped",
+                    run.created, run.updated, run.unchanged, run.skipped);
+            traineeSyncStatus.recordSuccess(apiInternCount);
+        } catch (Exception e) {
+            if (run != null) {
+                run.awaitChunksQuietly();
+            }
+            log.error("Error syncing interns from API", e);
+            statsService.setActiveInternsFromApi(0);
+            traineeSyncStatus.recordFailure(e.toString());
+        }
+    }
+
+    /**
+     * One pass over the API records. Existing hashes are loaded once up front and compared on the reading
+     * thread; new and changed trainees are collected into chunks of {@code trainee.sync.batch-size},
+     * which are written concurrently on the traineeSyncWorkerExecutor. At most one chunk per worker
+     * thread is in flight, so a fast response cannot queue up unbounded work.
+     */
+    private class SyncRun {
+        private final Map<String, InternSyncView> existingByCode = new HashMap<>();
+        private final Set<String> seenCodes = new HashSet<>();
+        private final Semaphore chunkPermits = new Semaphore(traineeSyncWorkerExecutor.getMaxPoolSize());
+        private final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        private List<Intern> newInterns = new ArrayList<>();
+        private List<Intern> changedInterns = new ArrayList<>();
+        private int created;
+        private int updated;
+        private int unchanged;
+        private int skipped;
+
+        SyncRun() {
+            for (InternSyncView view : internRepository.findAllSyncViews()) {
+                existingByCode.put(view.getInternCode(), view);
+            }
+        }
+
+        void accept(TraineeRecord trainee) {
+            if (trainee.getInternCode() == null || trainee.getInternCode().isBlank() || trainee.getName() == null) {
+                skipped++;
+                return;
+            }
+            // A trainee listed twice is written once, from its first record; chunks must not overlap
+            if (!seenCodes.add(trainee.getInternCode())) {
+                skipped++;
+                return;
+            }
+            String hash = trainee.contentHash();
+            InternSyncView existing = existingByCode.get(trainee.getInternCode());
+            if (existing != null && hash.equals(existing.getSyncHash())) {
+                unchanged++;
+                return;
+            }
+
+            Intern intern = new Intern();
+            trainee.applyTo(intern);
+            intern.setSyncHash(hash);
+            if (existing != null) {
+                intern.setInternId(existing.getInternId());
+                changedInterns.add(intern);
+            } else {
+                newInterns.add(intern);
+            }
+            if (newInterns.size() + changedInterns.size() >= batchSize) {
+                submitChunk();
+            }
+        }
+
+        /**
+         * Writes the last partial chunk and waits for all chunks.
+         *
+         * @throws IllegalStateException when a chunk failed; chunks written before it stay committed
+         */
+        void finish() {
+            if (!newInterns.isEmpty() || !changedInterns.isEmpty()) {
+                submitChunk();
+            }
+            awaitChunks();
+        }
+
+        /**
+         * Waits for the chunks in flight, e.g. after the response could not be read to the end.
+         */
+        void awaitChunksQuietly() {
+            try {
+                awaitChunks();
+            } catch (RuntimeException e) {
+                log.warn("Trainee sync chunk failed", e);
+            }
+        }
+
+        private void submitChunk() {
+            List<Intern> chunkNew = newInterns;
+            List<Intern> chunkChanged = changedInterns;
+            newInterns = new ArrayList<>();
+            changedInterns = new ArrayList<>();
+            created += chunkNew.size();
+            updated += chunkChanged.size();
+
+            chunkPermits.acquireUninterruptibly();
+            try {
+                chunks.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        writeChunk(chunkNew, chunkChanged);
+                    } finally {
+                        chunkPermits.release();
+                    }
+                }, traineeSyncWorkerExecutor));
+            } catch (TaskRejectedException e) {
+                chunkPermits.release();
+                throw e;
+            }
+        }
+
+        private void awaitChunks() {
+            RuntimeException failure = null;
+            for (CompletableFuture<Void> chunk : chunks) {
+                try {
+                    chunk.join();
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = new IllegalStateException("Writing a trainee chunk failed", e.getCause());
+                    }
+                }
+            }
+            chunks.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes one chunk in its own transaction: categories are resolved, changed interns updated, new
+     * interns inserted and given an AuthUser record. Lock conflicts are retried, see the class comment.
+     */
+    private void writeChunk(List<Intern> newInterns, List<Intern> changedInterns) {
+        long startNanos = System.nanoTime();
+        for (Intern intern : newInterns) {
+            intern.setCategory(internCategoryClassifier.classify(intern.getSpecialization()));
+        }
+        for (Intern intern : changedInterns) {
+            intern.setCategory(internCategoryClassifier.classify(intern.getSpecialization()));
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    importBatchWriter.updateSyncedInterns(changedInterns);
+                    for (Intern intern : changedInterns) {
+                        internAuthUserLinkService.invalidate(intern.getInternId());
+                    }
+                    importBatchWriter.insertInterns(newInterns);
+                    // Create AuthUser records for new interns from API sync
+                    authRoleService.ensureAuthUsersExist(newInterns);
+                });
+                break;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= chunkAttempts) {
+                    throw e;
+                }
+                log.warn("Trainee chunk hit a lock conflict (attempt {} of {}), retrying: {}",
+                        attempt, chunkAttempts, e.getMessage());
+                retryCounter.increment();
+                pauseBeforeRetry(attempt);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        int traineeCount = newInterns.size() + changedInterns.size();
+        chunkTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        chunkThroughput.record(traineeCount / Math.max(elapsedNanos / 1e9, 1e-9));
+        insertedCounter.increment(newInterns.size());
+        updatedCounter.increment(changedInterns.size());
+    }
+
+    /**
+     * Randomized and growing with each attempt, so the chunks that deadlocked do not collide again.
+     */
+    private static void pauseBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(50, 100) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry a trainee chunk", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.internsystem.internmanagement.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Outcome of the trainee API syncs, read by the {@code traineeSync} health indicator. Also keeps two
+ * syncs from running at the same time.
+ */
+@Component
+public class TraineeSyncStatus {
+
+    public enum State { NOT_STARTED, RUNNING, SUCCEEDED, FAILED }
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile State state = State.NOT_STARTED;
+    private volatile LocalDateTime lastStartedAt;
+    private volatile LocalDateTime lastSuccessAt;
+    private volatile LocalDateTime lastFailureAt;
+    private volatile String lastError;
+    private volatile int lastTraineeCount;
+
+    /**
+     * @return false when a sync is already running; the caller should skip its run
+     */
+    public boolean tryStart() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        state = State.RUNNING;
+        lastStartedAt = LocalDateTime.now();
+        return true;
+    }
+
+    public void recordSuccess(int traineeCount) {
+        lastTraineeCount = traineeCount;
+        lastSuccessAt = LocalDateTime.now();
+        lastError = null;
+        state = State.SUCCEEDED;
+        running.set(false);
+    }
+
+    public void recordFailure(String error) {
+        lastFailureAt = LocalDateTime.now();
+        lastError = error;
+        state = State.FAILED;
+        running.set(false);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public LocalDateTime getLastStartedAt() {
+        return lastStartedAt;
+    }
+
+    public LocalDateTime getLastSuccessAt() {
+        return lastSuccessAt;
+    }
+
+    public LocalDateTime getLastFailureAt() {
+        return lastFailureAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public int getLastTraineeCount() {
+        return lastTraineeCount;
+    }
+}
@@ -0,0 +1,136 @@
+package com.internsystem.internmanagement.security;
+
+import com.internsystem.internmanagement.entity.AuthUser;
+import com.internsystem.internmanagement.service.AuthorizationService;
+import com.internsystem.internmanagement.service.JwtService;
+import com.internsystem.internmanagement.service.ProjectService;
+import com.internsystem.internmanagement.service.TeamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests to the team and project endpoints, authenticated only by the claims of their bearer token.
+ */
+@SpringBootTest(properties = "trainee.sync.cron=-")
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockBean
+    private ProjectService projectService;
+
+    @MockBean
+    private TeamService teamService;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @Test
+    void createWithoutValidTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(json(post("/api/projects"))).andExpect(status().isUnauthorized());
+        mockMvc.perform(json(post("/api/teams"))).andExpect(status().isUnauthorized());
+        mockMvc.perform(json(post("/api/projects")).header("Authorization", "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(projectService, teamService);
+    }
+
+    @Test
+    void createByNonAdminIsForbidden() throws Exception {
+        String token = token(42L, AuthUser.Role.INTERN);
+
+        mockMvc.perform(json(post("/api/projects")).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(json(post("/api/teams")).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(projectService, teamService);
+    }
+
+    @Test
+    void adminCreatesProjectAsTheTokenUser() throws Exception {
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        when(projectService.createProject(any())).thenAnswer(invocation -> {
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        });
+
+        mockMvc.perform(json(post("/api/projects")).header("Authorization", "Bearer " + token(1L, AuthUser.Role.ADMIN)))
+                .andExpect(status().isOk());
+
+        AuthenticatedUser user = (AuthenticatedUser) authentication.get().getPrincipal();
+        assertEquals(1L, user.getId());
+        assertEquals("user1@example.com", user.getEmail());
+        assertEquals(AuthUser.Role.ADMIN, user.getRole());
+        assertEquals(List.of("ROLE_ADMIN"), authorities(authentication.get()));
+    }
+
+    @Test
+    void managerUpdatesProjectAsTheTokenUser() throws Exception {
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        AtomicReference<AuthenticatedUser> checkedUser = new AtomicReference<>();
+        when(authorizationService.canEditProject(any(), eq(5L))).thenAnswer(invocation -> {
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            checkedUser.set(invocation.getArgument(0));
+            return true;
+        });
+
+        mockMvc.perform(json(put("/api/projects/5")).header("Authorization", "Bearer " + token(42L, AuthUser.Role.INTERN)))
+                .andExpect(status().isOk());
+
+        // The permission check gets the principal built from the claims, no AuthUser is loaded
+        AuthenticatedUser user = checkedUser.get();
+        assertSame(authentication.get().getPrincipal(), user);
+        assertEquals(42L, user.getId());
+        assertEquals("user42@example.com", user.getEmail());
+        assertEquals(AuthUser.Role.INTERN, user.getRole());
+        assertEquals("T-42", user.getTraineeId());
+        assertEquals(List.of("ROLE_INTERN"), authorities(authentication.get()));
+        verify(projectService).updateProject(eq(5L), any());
+    }
+
+    private String token(Long id, AuthUser.Role role) {
+        AuthUser authUser = new AuthUser();
+        authUser.setId(id);
+        authUser.setEmail("user" + id + "@example.com");
+        authUser.setRole(role);
+        authUser.setTraineeId("T-" + id);
+        return jwtService.generateToken(authUser);
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request) {
+        return request.contentType(MediaType.APPLICATION_JSON).content("{\"projectName\":\"Name\",\"teamName\":\"Name\"}");
+    }
+
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
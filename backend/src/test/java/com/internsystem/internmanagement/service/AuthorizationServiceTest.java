@@ -0,0 +1,121 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.ProjectDTO;
+import com.internsystem.internmanagement.dto.TeamDTO;
+import com.internsystem.internmanagement.entity.AuthUser;
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.entity.ProjectStatus;
+import com.internsystem.internmanagement.repository.AuthUserRepository;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a change of team leader or project manager is visible on the next permission check of
+ * both users, although their permissions are cached.
+ */
+@SpringBootTest(properties = "trainee.sync.cron=-")
+class AuthorizationServiceTest {
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private InternService internService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private AuthUserRepository authUserRepository;
+
+    @Test
+    void teamLeaderChangesAreSeenByTheNextCheck() {
+        String prefix = prefix();
+        Intern first = createIntern(prefix + "-A");
+        Intern second = createIntern(prefix + "-B");
+        AuthenticatedUser firstUser = userOf(first);
+        AuthenticatedUser secondUser = userOf(second);
+        // Cache both users' permissions before any change
+        assertFalse(authorizationService.isTeamLeader(firstUser));
+        assertFalse(authorizationService.isTeamLeader(secondUser));
+
+        TeamDTO team = new TeamDTO();
+        team.setTeamName(prefix + " team");
+        team.setTeamLeaderId(first.getInternId());
+        Long teamId = teamService.createTeam(team).getTeamId();
+
+        assertTrue(authorizationService.canEditTeam(firstUser, teamId));
+        assertFalse(authorizationService.canEditTeam(secondUser, teamId));
+
+        team.setTeamLeaderId(second.getInternId());
+        teamService.updateTeam(teamId, team);
+
+        assertFalse(authorizationService.canEditTeam(firstUser, teamId));
+        assertFalse(authorizationService.isTeamLeader(firstUser));
+        assertTrue(authorizationService.canEditTeam(secondUser, teamId));
+
+        teamService.deleteTeam(teamId);
+
+        assertFalse(authorizationService.canEditTeam(secondUser, teamId));
+        assertFalse(authorizationService.isTeamLeader(secondUser));
+    }
+
+    @Test
+    void projectManagerChangesAreSeenByTheNextCheck() {
+        String prefix = prefix();
+        Intern first = createIntern(prefix + "-A");
+        Intern second = createIntern(prefix + "-B");
+        AuthenticatedUser firstUser = userOf(first);
+        AuthenticatedUser secondUser = userOf(second);
+        assertFalse(authorizationService.isProjectManager(firstUser));
+        assertFalse(authorizationService.isProjectManager(secondUser));
+
+        ProjectDTO project = new ProjectDTO();
+        project.setProjectName(prefix + " project");
+        project.setStatus(ProjectStatus.PLANNED);
+        project.setProjectManagerId(first.getInternId());
+        Long projectId = projectService.createProject(project).getProjectId();
+
+        assertTrue(authorizationService.canEditProject(firstUser, projectId));
+        assertFalse(authorizationService.canEditProject(secondUser, projectId));
+
+        project.setProjectManagerId(second.getInternId());
+        projectService.updateProject(projectId, project);
+
+        assertFalse(authorizationService.canEditProject(firstUser, projectId));
+        assertFalse(authorizationService.isProjectManager(firstUser));
+        assertTrue(authorizationService.canEditProject(secondUser, projectId));
+
+        projectService.deleteProject(projectId);
+
+        assertFalse(authorizationService.canEditProject(secondUser, projectId));
+        assertFalse(authorizationService.isProjectManager(secondUser));
+    }
+
+    private static String prefix() {
+        return "P" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private Intern createIntern(String internCode) {
+        Intern intern = new Intern();
+        intern.setInternCode(internCode);
+        intern.setName(internCode);
+        intern.setEmail(internCode.toLowerCase() + "@example.com");
+        return internService.createIntern(intern);
+    }
+
+    private AuthenticatedUser userOf(Intern intern) {
+        AuthUser authUser = authUserRepository.findByEmail(intern.getEmail()).orElseThrow();
+        return new AuthenticatedUser(authUser.getId(), authUser.getEmail(), authUser.getRole(), authUser.getTraineeId());
+    }
+}
@@ -0,0 +1,213 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.BulkImportJobDTO;
+import com.internsystem.internmanagement.entity.TeamMember;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {"trainee.sync.cron=-", "bulk-import.chunk-size=100"})
+class BulkImportJobServiceTest {
+
+    private static final int ROWS = 450;
+    private static final String HEADER = "intern_code,name,email,institute,training_start_date,"
+            + "training_end_date,team_name,team_leader_intern_code,project_name,project_description,"
+            + "project_manager_id,project_status,project_start_date,project_target_date\n";
+    private static final Set<String> FINISHED = Set.of("COMPLETED", "FAILED", "CANCELLED");
+
+    @Autowired
+    private BulkImportJobService bulkImportJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ImportBatchWriter importBatchWriter;
+
+    @SpyBean
+    private CsvStreamReader csvStreamReader;
+
+    @Test
+    void resumedImportWritesEveryRowExactlyOnce() throws Exception {
+        // The PROJECTS phase chunk holding RESUME250 (lines 202-301) fails once, after its memberships were written
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            List<TeamMember> members = invocation.getArgument(0);
+            boolean failingChunk = members.stream()
+                    .anyMatch(member -> "RESUME250".equals(member.getIntern().getInternCode()));
+            if (failingChunk && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Simulated failure");
+            }
+            return null;
+        }).when(importBatchWriter).insertTeamMembers(anyList());
+
+        BulkImportJobDTO job = awaitFinished(bulkImportJobService.submit(csv("RESUME")));
+
+        assertTrue(failed.get());
+        assertEquals("FAILED", job.getStatus());
+        assertTrue(job.isResumable());
+        assertEquals("PROJECTS", job.getCheckpointPhase());
+        assertEquals(201, job.getCheckpointLine());
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM interns WHERE intern_code LIKE 'RESUME%'"));
+        assertEquals(200, job.getSuccessCount());
+        // The leaders' from the TEAMS phase and those of the two committed PROJECTS chunks; the failed
+        // chunk's memberships were rolled back
+        assertEquals(200, countMemberships("RESUME"));
+
+        job = awaitFinished(bulkImportJobService.resumeJob(job.getJobId()));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(ROWS, job.getSuccessCount());
+        assertEquals(0, job.getFailedCount());
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM interns WHERE intern_code LIKE 'RESUME%'"));
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM auth WHERE trainee_id LIKE 'RESUME%'"));
+        assertEquals(5, count("SELECT COUNT(*) FROM teams WHERE team_name LIKE 'RESUMETeam%'"));
+        assertEquals(ROWS, countMemberships("RESUME"));
+        assertEquals(ROWS, count("SELECT COUNT(DISTINCT tm.intern_id) FROM team_members tm "
+                + "JOIN interns i ON i.intern_id = tm.intern_id WHERE i.intern_code LIKE 'RESUME%'"));
+        assertEquals(3, count("SELECT COUNT(*) FROM projects WHERE project_name LIKE 'RESUMEProject%'"));
+        assertEquals(5, count("SELECT COUNT(*) FROM project_teams pt "
+                + "JOIN teams t ON t.team_id = pt.team_id WHERE t.team_name LIKE 'RESUMETeam%'"));
+    }
+
+    @Test
+    void newTeamsAndProjectsAreWrittenInOneBatchEach() throws Exception {
+        // Sizes are taken during the call, the import clears its queues afterwards
+        List<Integer> teamBatches = new ArrayList<>();
+        List<Integer> projectBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            teamBatches.add(invocation.<List<?>>getArgument(0).size());
+            return invocation.callRealMethod();
+        }).when(importBatchWriter).insertTeams(anyList());
+        doAnswer(invocation -> {
+            projectBatches.add(invocation.<List<?>>getArgument(0).size());
+            return invocation.callRealMethod();
+        }).when(importBatchWriter).insertProjects(anyList());
+
+        BulkImportJobDTO job = awaitFinished(bulkImportJobService.submit(csv("BATCH")));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(ROWS, job.getSuccessCount());
+        // All teams and projects first appear in the first chunk of their phase
+        assertEquals(List.of(5), teamBatches);
+        assertEquals(List.of(3), projectBatches);
+        assertEquals(List.of(
+                        "BATCHTeam0 BATCH0 BATCHProject0 BATCH0", "BATCHTeam1 BATCH1 BATCHProject1 BATCH1",
+                        "BATCHTeam2 BATCH2 BATCHProject2 BATCH2", "BATCHTeam3 BATCH3 BATCHProject0 BATCH0",
+                        "BATCHTeam4 BATCH4 BATCHProject1 BATCH1"),
+                jdbcTemplate.queryForList("SELECT CONCAT(t.team_name, ' ', l.intern_code, ' ', p.project_name, ' ', "
+                        + "m.intern_code) FROM teams t JOIN interns l ON l.intern_id = t.team_leader_id "
+                        + "JOIN project_teams pt ON pt.team_id = t.team_id JOIN projects p ON p.project_id = pt.project_id "
+                        + "JOIN interns m ON m.intern_id = p.project_manager_id "
+                        + "WHERE t.team_name LIKE 'BATCHTeam%' ORDER BY t.team_name", String.class));
+        // The leaders' and managers' AuthUser links are written along with the rows
+        assertEquals(0, count("SELECT COUNT(*) FROM teams WHERE team_name LIKE 'BATCHTeam%' AND team_leader_auth_id IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM projects WHERE project_name LIKE 'BATCHProject%' "
+                + "AND project_manager_auth_id IS NULL"));
+        assertEquals(ROWS, countMemberships("BATCH"));
+    }
+
+    @Test
+    void readFailureAfterCommittedChunksLeavesTheJobResumable() throws Exception {
+        // The TEAMS phase pass (the third read of the file) fails at line 250, after two chunks were committed
+        AtomicInteger reads = new AtomicInteger();
+        doAnswer(invocation -> {
+            InputStreamSource source = invocation.getArgument(0);
+            SpreadsheetStreamReader.RowHandler handler = invocation.getArgument(1);
+            boolean failingRead = reads.incrementAndGet() == 3;
+            new CsvStreamReader().read(source, (lineNumber, values) -> {
+                if (failingRead && lineNumber == 250) {
+                    throw new IOException("Simulated read failure");
+                }
+                handler.handleRow(lineNumber, values);
+            });
+            return null;
+        }).when(csvStreamReader).read(any(), any());
+
+        BulkImportJobDTO job = awaitFinished(bulkImportJobService.submit(csv("READFAIL")));
+
+        assertEquals("FAILED", job.getStatus());
+        assertTrue(job.isResumable());
+        assertEquals("TEAMS", job.getCheckpointPhase());
+        assertEquals(201, job.getCheckpointLine());
+        assertTrue(job.getErrors().toString().contains("Simulated read failure"), job.getErrors().toString());
+
+        job = awaitFinished(bulkImportJobService.resumeJob(job.getJobId()));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(ROWS, job.getSuccessCount());
+        assertEquals(ROWS, countMemberships("READFAIL"));
+    }
+
+    @Test
+    void unreadableFileFailsTheJob() throws Exception {
+        String csv = HEADER + "BADQUOTE0,\"Intern 0,badquote0@example.com,Institute,01/02/2024,01/08/2024,"
+                + "BADQUOTETeam0,BADQUOTE0,BADQUOTEProject0,Description,,IN_PROGRESS,01/02/2024,01/12/2024\n";
+
+        BulkImportJobDTO job = awaitFinished(bulkImportJobService.submit(new MockMultipartFile(
+                "file", "interns.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("FAILED", job.getStatus());
+        assertFalse(job.isResumable());
+        assertTrue(job.getErrors().toString().contains("Unterminated quoted field"), job.getErrors().toString());
+        assertEquals(0, count("SELECT COUNT(*) FROM interns WHERE intern_code LIKE 'BADQUOTE%'"));
+    }
+
+    /**
+     * Intern {prefix}{i} joins team {prefix}Team{i % 5}, led by {prefix}{i % 5}. Each team works on one project.
+     */
+    private static MockMultipartFile csv(String prefix) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < ROWS; i++) {
+            int team = i % 5;
+            csv.append(prefix).append(i).append(",Intern ").append(i).append(',').append(prefix.toLowerCase())
+                    .append(i).append("@example.com,Institute,01/02/2024,01/08/2024,").append(prefix).append("Team")
+                    .append(team).append(',').append(prefix).append(team).append(',').append(prefix)
+                    .append("Project").append(team % 3).append(",Description,,IN_PROGRESS,01/02/2024,01/12/2024\n");
+        }
+        return new MockMultipartFile("file", "interns.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private BulkImportJobDTO awaitFinished(BulkImportJobDTO job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (System.currentTimeMillis() < deadline) {
+            BulkImportJobDTO current = bulkImportJobService.getJob(job.getJobId());
+            if (FINISHED.contains(current.getStatus())) {
+                return current;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import job " + job.getJobId() + " did not finish");
+        return null;
+    }
+
+    private long countMemberships(String prefix) {
+        return count("SELECT COUNT(*) FROM team_members tm "
+                + "JOIN interns i ON i.intern_id = tm.intern_id WHERE i.intern_code LIKE '" + prefix + "%'");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
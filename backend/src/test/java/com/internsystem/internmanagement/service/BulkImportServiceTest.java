@@ -0,0 +1,329 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.dto.BulkImportPreviewDTO;
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.entity.Project;
+import com.internsystem.internmanagement.entity.ProjectStatus;
+import com.internsystem.internmanagement.entity.ProjectTeam;
+import com.internsystem.internmanagement.entity.Team;
+import com.internsystem.internmanagement.entity.TeamMember;
+import com.internsystem.internmanagement.repository.InternRepository;
+import com.internsystem.internmanagement.repository.ProjectRepository;
+import com.internsystem.internmanagement.repository.ProjectTeamRepository;
+import com.internsystem.internmanagement.repository.TeamMemberRepository;
+import com.internsystem.internmanagement.repository.TeamRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "trainee.sync.cron=-")
+class BulkImportServiceTest {
+
+    private static final List<String> TABLES =
+            List.of("interns", "auth", "teams", "team_members", "projects", "project_teams");
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private InternService internService;
+
+    @Autowired
+    private InternRepository internRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectTeamRepository projectTeamRepository;
+
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dryRunWritesNothing() {
+        String prefix = "D" + UUID.randomUUID().toString().substring(0, 8);
+        Intern existing = new Intern();
+        existing.setInternCode(prefix + "-0");
+        existing.setName("Old name");
+        existing.setEmail(prefix.toLowerCase() + "-0@example.com");
+        existing = internService.createIntern(existing);
+
+        // The existing intern is renamed; the other interns, both teams and the project are new
+        StringBuilder csv = new StringBuilder("intern_code,name,email,institute,training_start_date,"
+                + "training_end_date,team_name,team_leader_intern_code,project_name,project_description,"
+                + "project_manager_id,project_status,project_start_date,project_target_date\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append(prefix).append('-').append(i).append(",Intern ").append(i).append(',')
+                    .append(prefix.toLowerCase()).append('-').append(i).append("@example.com,Institute,")
+                    .append("01/02/2024,01/08/2024,").append(prefix).append(" team ").append(i % 2).append(',')
+                    .append(prefix).append('-').append(i % 2).append(',').append(prefix).append(" project,")
+                    .append("Description,").append(prefix).append("-0,IN_PROGRESS,01/02/2024,01/12/2024\n");
+        }
+        Map<String, Object> before = snapshot(existing.getInternId());
+
+        BulkImportPreviewDTO preview = bulkImportService.previewBulkData("interns.csv",
+                new MockMultipartFile("file", "interns.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(), preview.getErrors());
+        assertEquals(9, preview.getInterns().getToCreate());
+        assertEquals(1, preview.getInterns().getToUpdate());
+        assertEquals(2, preview.getTeams().getToCreate());
+        assertEquals(1, preview.getProjects().getToCreate());
+        assertEquals(10, preview.getTeamMemberships().getToCreate());
+        assertEquals(2, preview.getProjectTeams().getToCreate());
+        assertEquals(before, snapshot(existing.getInternId()));
+    }
+
+    @Test
+    void exportSinceKeepsRowsWithAChangedInternTeamOrProject() throws Exception {
+        String prefix = "E" + UUID.randomUUID().toString().substring(0, 8);
+        createExportFixture(prefix);
+        LocalDateTime since = LocalDateTime.now().minusMinutes(30);
+        stampFixture(prefix, since.minusMinutes(30));
+
+        jdbcTemplate.update("UPDATE interns SET updated_at = ? WHERE intern_code = ?",
+                since.plusMinutes(1), prefix + "-A");
+        jdbcTemplate.update("UPDATE teams SET updated_at = ? WHERE team_name = ?",
+                since.plusMinutes(1), prefix + " team1");
+        jdbcTemplate.update("UPDATE projects SET updated_at = ? WHERE project_name = ?",
+                since.plusMinutes(1), prefix + " project");
+
+        // E has no change of its own, and the team and project rows of the others come along
+        assertEquals(List.of(prefix + "-A", prefix + "-B", prefix + "-C", prefix + "-D"),
+                exportedInternCodes(prefix, since));
+        assertEquals(List.of(), exportedInternCodes(prefix, since.plusMinutes(2)));
+    }
+
+    @Test
+    void exportWatermarkCoversRowsCommittedAfterTheExportRead() throws Exception {
+        String prefix = "E" + UUID.randomUUID().toString().substring(0, 8);
+        createExportFixture(prefix);
+        stampFixture(prefix, LocalDateTime.now().minusHours(1));
+
+        LocalDateTime exportStart = LocalDateTime.now();
+        LocalDateTime watermark = bulkImportService.exportWatermark();
+        // A transaction open during the export stamped this row before the export started but commits after it
+        jdbcTemplate.update("UPDATE interns SET updated_at = ? WHERE intern_code = ?",
+                exportStart.minusSeconds(10), prefix + "-E");
+
+        assertEquals(List.of(prefix + "-E"), exportedInternCodes(prefix, watermark));
+    }
+
+    @Test
+    void exportWritesOneRowPerTeamProjectInInternOrder() throws Exception {
+        String prefix = "F" + UUID.randomUUID().toString().substring(0, 8);
+        String p = prefix.toLowerCase();
+        transactionTemplate.executeWithoutResult(status -> {
+            Intern a = createIntern(prefix + "-A");
+            a.setInstitute("University, Colombo");
+            a.setTrainingStartDate(LocalDate.of(2024, 2, 1));
+            a.setTrainingEndDate(LocalDate.of(2024, 8, 1));
+            Intern b = createIntern(prefix + "-B");
+            Intern c = createIntern(prefix + "-C");
+            Intern d = createIntern(prefix + "-D");
+            createTeam(prefix + " team1", b, List.of(b));
+            Team team2 = createTeam(prefix + " team2", c, List.of(c, d));
+            createTeam(prefix + " team3", null, List.of(d));
+
+            Project x = new Project();
+            x.setProjectName(prefix + " X");
+            x.setDescription("Says \"hi\"");
+            x.setProjectManager(c);
+            x.setStatus(ProjectStatus.IN_PROGRESS);
+            x.setStartDate(LocalDate.of(2024, 3, 1));
+            x.setTargetDate(LocalDate.of(2024, 9, 30));
+            linkProject(projectRepository.save(x), team2);
+            Project y = new Project();
+            y.setProjectName(prefix + " Y");
+            y.setStatus(ProjectStatus.PLANNED);
+            linkProject(projectRepository.save(y), team2);
+        });
+
+        StringWriter writer = new StringWriter();
+        bulkImportService.exportBulkData(writer, null);
+
+        // A has no team, B's team has no project, D's team3 has none either and shows D's other projects
+        assertEquals(List.of(
+                prefix + "-A,Intern A," + p + "-a@example.com,\"University, Colombo\",01-02-2024,01-08-2024,,,,,,,,",
+                prefix + "-B,Intern B," + p + "-b@example.com,,,," + prefix + " team1," + prefix + "-B,,,,,,",
+                prefix + "-C,Intern C," + p + "-c@example.com,,,," + prefix + " team2," + prefix + "-C,"
+                        + prefix + " X,\"Says \"\"hi\"\"\"," + prefix + "-C,IN_PROGRESS,01-03-2024,30-09-2024",
+                prefix + "-C,Intern C," + p + "-c@example.com,,,," + prefix + " team2," + prefix + "-C,"
+                        + prefix + " Y,,,PLANNED,,",
+                prefix + "-D,Intern D," + p + "-d@example.com,,,," + prefix + " team2," + prefix + "-C,"
+                        + prefix + " X,\"Says \"\"hi\"\"\"," + prefix + "-C,IN_PROGRESS,01-03-2024,30-09-2024",
+                prefix + "-D,Intern D," + p + "-d@example.com,,,," + prefix + " team2," + prefix + "-C,"
+                        + prefix + " Y,,,PLANNED,,",
+                prefix + "-D,Intern D," + p + "-d@example.com,,,," + prefix + " team3,,"
+                        + prefix + " X,\"Says \"\"hi\"\"\"," + prefix + "-C,IN_PROGRESS,01-03-2024,30-09-2024",
+                prefix + "-D,Intern D," + p + "-d@example.com,,,," + prefix + " team3,,"
+                        + prefix + " Y,,,PLANNED,,"),
+                writer.toString().lines().filter(line -> line.startsWith(prefix)).toList());
+        assertTrue(writer.toString().startsWith("intern_code,name,email,institute,"));
+    }
+
+    @Test
+    void changedExportReadsInternsInIdOrderAcrossInClauseChunks() throws Exception {
+        String prefix = "G" + UUID.randomUUID().toString().substring(0, 8);
+        List<Intern> interns = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            Intern intern = new Intern();
+            intern.setInternCode(String.format("%s-%04d", prefix, i));
+            intern.setName("Intern " + i);
+            intern.setEmail(prefix.toLowerCase() + "-" + i + "@example.com");
+            interns.add(intern);
+        }
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+        importBatchWriter.insertInterns(interns);
+
+        // More changed interns than one IN clause takes, so they are read in two chunks
+        assertEquals(interns.stream().map(Intern::getInternCode).toList(), exportedInternCodes(prefix, since));
+    }
+
+    @Test
+    void excelExportStreamsRowsBeyondTheInMemoryWindow() throws Exception {
+        String prefix = "X" + UUID.randomUUID().toString().substring(0, 8);
+        int rows = ExcelExportSupport.ROW_WINDOW + 50;
+        List<Intern> interns = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Intern intern = new Intern();
+            intern.setInternCode(String.format("%s-%04d", prefix, i));
+            intern.setName("Intern " + i);
+            intern.setEmail(prefix.toLowerCase() + "-" + i + "@example.com");
+            intern.setTrainingStartDate(LocalDate.of(2024, 2, 1));
+            interns.add(intern);
+        }
+        importBatchWriter.insertInterns(interns);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkImportService.exportBulkDataAsExcel(output, null);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Data");
+            assertEquals("intern_code", sheet.getRow(0).getCell(0).getStringCellValue());
+            List<String> codes = new ArrayList<>();
+            for (Row row : sheet) {
+                String code = row.getCell(0).getStringCellValue();
+                if (code.startsWith(prefix)) {
+                    codes.add(code);
+                    assertEquals(LocalDate.of(2024, 2, 1), row.getCell(4).getLocalDateTimeCellValue().toLocalDate());
+                }
+            }
+            assertEquals(interns.stream().map(Intern::getInternCode).toList(), codes);
+        }
+    }
+
+    /**
+     * A has no team, B leads team1 (no project), C leads team2 with member D (project), E has no team.
+     */
+    private void createExportFixture(String prefix) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Intern> interns = new LinkedHashMap<>();
+            for (String code : List.of("A", "B", "C", "D", "E")) {
+                interns.put(code, createIntern(prefix + "-" + code));
+            }
+            Team team1 = createTeam(prefix + " team1", interns.get("B"), List.of(interns.get("B")));
+            Team team2 = createTeam(prefix + " team2", interns.get("C"), List.of(interns.get("C"), interns.get("D")));
+
+            Project project = new Project();
+            project.setProjectName(prefix + " project");
+            project.setStatus(ProjectStatus.IN_PROGRESS);
+            project.setProjectManager(interns.get("C"));
+            linkProject(projectRepository.save(project), team2);
+        });
+    }
+
+    /**
+     * Named "Intern X" for code {prefix}-X.
+     */
+    private Intern createIntern(String internCode) {
+        Intern intern = new Intern();
+        intern.setInternCode(internCode);
+        intern.setName("Intern " + internCode.substring(internCode.lastIndexOf('-') + 1));
+        intern.setEmail(internCode.toLowerCase() + "@example.com");
+        return internRepository.save(intern);
+    }
+
+    private void linkProject(Project project, Team team) {
+        ProjectTeam projectTeam = new ProjectTeam();
+        projectTeam.setProject(project);
+        projectTeam.setTeam(team);
+        projectTeamRepository.save(projectTeam);
+    }
+
+    private Team createTeam(String teamName, Intern leader, List<Intern> members) {
+        Team team = new Team();
+        team.setTeamName(teamName);
+        team.setTeamLeader(leader);
+        team = teamRepository.save(team);
+        for (Intern intern : members) {
+            TeamMember member = new TeamMember();
+            member.setTeam(team);
+            member.setIntern(intern);
+            teamMemberRepository.save(member);
+        }
+        return team;
+    }
+
+    private void stampFixture(String prefix, LocalDateTime updatedAt) {
+        jdbcTemplate.update("UPDATE interns SET updated_at = ? WHERE intern_code LIKE ?", updatedAt, prefix + "%");
+        jdbcTemplate.update("UPDATE teams SET updated_at = ? WHERE team_name LIKE ?", updatedAt, prefix + "%");
+        jdbcTemplate.update("UPDATE projects SET updated_at = ? WHERE project_name LIKE ?", updatedAt, prefix + "%");
+    }
+
+    private List<String> exportedInternCodes(String prefix, LocalDateTime since) throws Exception {
+        StringWriter writer = new StringWriter();
+        bulkImportService.exportBulkData(writer, since);
+        return writer.toString().lines()
+                .filter(line -> line.startsWith(prefix))
+                .map(line -> line.substring(0, line.indexOf(',')))
+                .toList();
+    }
+
+    /**
+     * Row counts of the tables an import writes, and the stored state of one intern.
+     */
+    private Map<String, Object> snapshot(Long internId) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            snapshot.put(table, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+        }
+        snapshot.put("intern", jdbcTemplate.queryForMap(
+                "SELECT name, email, institute, updated_at FROM interns WHERE intern_id = ?", internId));
+        return snapshot;
+    }
+}
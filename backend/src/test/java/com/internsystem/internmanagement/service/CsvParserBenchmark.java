@@ -0,0 +1,108 @@
+package com.internsystem.internmanagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CsvStreamReader} with the line-based parser the imports used before it.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main CsvParserBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParserBenchmark {
+
+    @Param({"1000", "50000"})
+    private int rows;
+
+    private byte[] csv;
+
+    @Setup
+    public void createFile() {
+        StringBuilder builder = new StringBuilder("intern_code,name,email,institute,training_start_date,training_end_date,"
+                + "team_name,team_leader_intern_code,project_name,project_description,project_manager_id,"
+                + "project_status,project_start_date,project_target_date\r\n");
+        for (int i = 0; i < rows; i++) {
+            builder.append("IN").append(i).append(",Intern Name ").append(i).append(",intern").append(i)
+                    .append("@example.com,University of Moratuwa,01/02/2024,01/08/2024,Team ").append(i % 50)
+                    .append(",IN").append(i % 50).append(",Project ").append(i % 20)
+                    .append(",\"Internal tooling, reporting and dashboards\",IN").append(i % 20)
+                    .append(",IN_PROGRESS,01/02/2024,01/12/2024\r\n");
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void streamReader(Blackhole blackhole) throws Exception {
+        new CsvStreamReader().read(new ByteArrayResource(csv), (lineNumber, values) -> blackhole.consume(values));
+    }
+
+    @Benchmark
+    public void legacyLineParser(Blackhole blackhole) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv)))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    continue;
+                }
+                if (!line.trim().isEmpty()) {
+                    blackhole.consume(parseCsvLineLegacy(line));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy of the parseCsvLineInternal method the import services used before CsvStreamReader.
+     */
+    private static String[] parseCsvLineLegacy(String line) {
+        List<String> values = new ArrayList<>();
+        boolean inQuotes = false;
+        StringBuilder currentValue = new StringBuilder();
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                values.add(currentValue.toString());
+                currentValue = new StringBuilder();
+            } else {
+                currentValue.append(c);
+            }
+        }
+
+        values.add(currentValue.toString());
+        return values.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,130 @@
+package com.internsystem.internmanagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvStreamReaderTest {
+
+    // Must match CsvStreamReader.BUFFER_SIZE for the split line break tests to straddle two reads
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final CsvStreamReader csvStreamReader = new CsvStreamReader();
+
+    @Test
+    void unescapesDoubledQuotes() throws Exception {
+        List<String> records = readRecords("a,\"he said \"\"hi\"\"\",\"\"\"\",c\n");
+
+        assertEquals(List.of("1:[a, he said \"hi\", \", c]"), records);
+    }
+
+    @Test
+    void keepsLineBreaksInQuotedFieldsAndCountsTheirLines() throws Exception {
+        List<String> records = readRecords(
+                "\"lf\nx\",1\n" +
+                "\"cr\rx\",2\n" +
+                "\"crlf\r\nx\",3\n" +
+                "\"two\r\n\r\nbreaks\",4\n" +
+                "last,5\n");
+
+        assertEquals(List.of(
+                "1:[lf\nx, 1]",
+                "3:[cr\rx, 2]",
+                "5:[crlf\r\nx, 3]",
+                "7:[two\r\n\r\nbreaks, 4]",
+                "10:[last, 5]"), records);
+    }
+
+    @Test
+    void treatsCrLfSplitAcrossBuffersAsOneLineBreak() throws Exception {
+        String first = "x".repeat(BUFFER_SIZE - 1);
+        List<String> records = readRecords(first + "\r\nnext,1\r\n");
+
+        assertEquals(List.of("1:[" + first + "]", "2:[next, 1]"), records);
+    }
+
+    @Test
+    void treatsCrLfSplitAcrossBuffersInQuotedFieldAsOneLine() throws Exception {
+        String text = "x".repeat(BUFFER_SIZE - 2);
+        List<String> records = readRecords("\"" + text + "\r\ny\",1\nnext,2\n");
+
+        assertEquals(List.of("1:[" + text + "\r\ny, 1]", "3:[next, 2]"), records);
+    }
+
+    @Test
+    void readsLastRecordWithoutTrailingLineBreak() throws Exception {
+        assertEquals(List.of("1:[a, b]", "2:[c, ]"), readRecords("a,b\nc,"));
+        assertEquals(List.of("1:[a, b]", "2:[quoted, x]"), readRecords("a,b\r\n\"quoted\",x"));
+    }
+
+    @Test
+    void failsOnUnterminatedQuoteWithTheLineTheRecordStartsOn() {
+        CsvStreamReader.CsvParseException e = assertThrows(CsvStreamReader.CsvParseException.class,
+                () -> readRecords("h1,h2\na,b\nc,\"open\nd,e\nf,g\n"));
+
+        assertEquals(3, e.getLineNumber());
+        assertEquals("Line 3: Unterminated quoted field", e.getMessage());
+    }
+
+    @Test
+    void skipsHeaderAndBlankLines() throws Exception {
+        List<String> rows = read("h1,h2\n\na,b\n   \nc,d\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(List.of("3:[a, b]", "5:[c, d]"), rows);
+    }
+
+    @Test
+    void stripsUtf8ByteOrderMark() throws Exception {
+        List<String> rows = read(concat(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF},
+                "code,name\nC1,Zoë\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("2:[C1, Zoë]"), rows);
+    }
+
+    @Test
+    void readsUtf16WithByteOrderMark() throws Exception {
+        List<String> rows = read(concat(new byte[]{(byte) 0xFF, (byte) 0xFE},
+                "code,name\nC1,Zoë\n".getBytes(StandardCharsets.UTF_16LE)));
+
+        assertEquals(List.of("2:[C1, Zoë]"), rows);
+    }
+
+    @Test
+    void fallsBackToWindows1252WhenNotUtf8() throws Exception {
+        // "Zoë, €5" as Excel saves it on Windows
+        byte[] row = {'C', '1', ',', '"', 'Z', 'o', (byte) 0xEB, ',', ' ', (byte) 0x80, '5', '"', '\r', '\n'};
+        List<String> rows = read(concat("code,name\r\n".getBytes(StandardCharsets.US_ASCII), row));
+
+        assertEquals(List.of("2:[C1, Zoë, €5]"), rows);
+    }
+
+    private static List<String> readRecords(String csv) throws Exception {
+        List<String> records = new ArrayList<>();
+        CsvStreamReader.readRecords(new StringReader(csv),
+                (lineNumber, values) -> records.add(lineNumber + ":" + Arrays.toString(values)));
+        return records;
+    }
+
+    private List<String> read(byte[] csv) throws Exception {
+        List<String> rows = new ArrayList<>();
+        csvStreamReader.read(new ByteArrayResource(csv),
+                (lineNumber, values) -> rows.add(lineNumber + ":" + Arrays.toString(values)));
+        return rows;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(first);
+        out.writeBytes(second);
+        return out.toByteArray();
+    }
+}
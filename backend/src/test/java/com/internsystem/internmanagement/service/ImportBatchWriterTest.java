@@ -0,0 +1,43 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.Intern;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "trainee.sync.cron=-")
+class ImportBatchWriterTest {
+
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void existingInternCodeKeepsItsRow() {
+        String prefix = "W" + UUID.randomUUID().toString().substring(0, 8);
+        importBatchWriter.insertInterns(List.of(intern(prefix + "-A", "First")));
+
+        // A batch racing the first one holds the same code next to a new one
+        importBatchWriter.insertInterns(List.of(intern(prefix + "-A", "Second"), intern(prefix + "-B", "Other")));
+
+        assertEquals(List.of(prefix + "-A First", prefix + "-B Other"), jdbcTemplate.queryForList(
+                "SELECT CONCAT(intern_code, ' ', name) FROM interns WHERE intern_code LIKE ? ORDER BY intern_code",
+                String.class, prefix + "%"));
+    }
+
+    private static Intern intern(String internCode, String name) {
+        Intern intern = new Intern();
+        intern.setInternCode(internCode);
+        intern.setName(name);
+        intern.setEmail(internCode.toLowerCase() + "@example.com");
+        return intern;
+    }
+}
@@ -0,0 +1,120 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.AuthUser;
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.repository.AuthUserRepository;
+import com.internsystem.internmanagement.repository.InternRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The cached intern to AuthUser links, and the changes that must drop them.
+ */
+@SpringBootTest(properties = "trainee.sync.cron=-")
+class InternAuthUserLinkServiceTest {
+
+    @Autowired
+    private InternAuthUserLinkService internAuthUserLinkService;
+
+    @Autowired
+    private InternService internService;
+
+    @Autowired
+    private AuthRoleService authRoleService;
+
+    @Autowired
+    private InternRepository internRepository;
+
+    @Autowired
+    private AuthUserRepository authUserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cachedLinkIsKeptUntilTheInternIsEdited() {
+        String prefix = prefix();
+        Intern intern = createIntern(prefix);
+        AuthUser own = authUserRepository.findByEmail(intern.getEmail()).orElseThrow();
+        AuthUser other = createAuthUser(prefix.toLowerCase() + "-other@example.com");
+
+        assertEquals(own.getId(), linkedAuthUserId(intern.getInternId()));
+
+        // A change that bypasses the services is not noticed: the link is served from the cache
+        jdbcTemplate.update("UPDATE interns SET email = ? WHERE intern_id = ?", other.getEmail(), intern.getInternId());
+        assertEquals(own.getId(), linkedAuthUserId(intern.getInternId()));
+
+        Intern edited = internRepository.findById(intern.getInternId()).orElseThrow();
+        internService.updateIntern(intern.getInternId(), edited);
+
+        assertEquals(other.getId(), linkedAuthUserId(intern.getInternId()));
+    }
+
+    @Test
+    void deletedInternLosesItsCachedLink() {
+        Intern intern = createIntern(prefix());
+        assertTrue(internAuthUserLinkService.findAuthUserForIntern(intern).isPresent());
+        assertTrue(internAuthUserLinkService.isLinkCached(intern.getInternId()));
+
+        internService.deleteIntern(intern.getInternId());
+
+        assertFalse(internAuthUserLinkService.isLinkCached(intern.getInternId()));
+    }
+
+    @Test
+    void cachedMissIsDroppedWhenTheAuthUserIsCreated() {
+        String prefix = prefix();
+        Intern intern = new Intern();
+        intern.setInternCode(prefix);
+        intern.setName(prefix);
+        intern.setEmail(prefix.toLowerCase() + "@example.com");
+        // Saved without the service, so no AuthUser exists yet
+        Intern saved = internRepository.save(intern);
+
+        assertEquals(Optional.empty(), internAuthUserLinkService.findAuthUserForIntern(saved));
+        assertTrue(internAuthUserLinkService.isLinkCached(saved.getInternId()));
+
+        authRoleService.ensureAuthUserExists(saved.getInternId());
+
+        AuthUser created = authUserRepository.findByEmail(saved.getEmail()).orElseThrow();
+        assertEquals(created.getId(), linkedAuthUserId(saved.getInternId()));
+    }
+
+    private static String prefix() {
+        return "L" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private Intern createIntern(String internCode) {
+        Intern intern = new Intern();
+        intern.setInternCode(internCode);
+        intern.setName(internCode);
+        intern.setEmail(internCode.toLowerCase() + "@example.com");
+        return internService.createIntern(intern);
+    }
+
+    private AuthUser createAuthUser(String email) {
+        AuthUser authUser = new AuthUser();
+        authUser.setEmail(email);
+        authUser.setName(email);
+        authUser.setPassword("");
+        authUser.setRole(AuthUser.Role.INTERN);
+        return authUserRepository.save(authUser);
+    }
+
+    /**
+     * Resolves the link from a freshly read intern, as the team and project services do.
+     */
+    private Long linkedAuthUserId(Long internId) {
+        Intern intern = internRepository.findById(internId).orElseThrow();
+        return internAuthUserLinkService.findAuthUserForIntern(intern).orElseThrow().getId();
+    }
+}
@@ -0,0 +1,151 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.InternCategory;
+import com.internsystem.internmanagement.repository.InternCategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InternCategoryClassifierTest {
+
+    private static final String[] WORDS = {
+            "devops", "cloud", "cicd", "qa", "quality assurance", "fullstack", "mern", "c#", "java", "python",
+            "flutter", "reactjs", "php", "pm", "ba", "ai", "DevOps", "JAVA", "Quality Assurance", "design",
+            "engineer", "a", "i", "c", "#", "quality", "assurance", "npm", "maintenance", "basics"
+    };
+
+    @Mock
+    private InternCategoryRepository internCategoryRepository;
+
+    @InjectMocks
+    private InternCategoryClassifier classifier;
+
+    private final List<InternCategory> categories = new ArrayList<>();
+
+    @Test
+    void picksSameCategoryAsTheOldIfElseChain() {
+        // Created in another order than their precedence, which must not matter
+        givenCategories("AI", "Other", "PMBA", "Web Developer", "QA", "DevOps");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder specialization = new StringBuilder();
+            int words = 1 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                specialization.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextBoolean() ? " " : "");
+            }
+            String text = specialization.toString();
+            assertEquals(oldCategoryName(text), nameOf(classifier.classify(text)), text);
+        }
+    }
+
+    @Test
+    void prefersEarlierBuiltInCategoryWhenSeveralMatch() {
+        givenCategories("AI", "PMBA", "Web Developer", "QA", "DevOps");
+
+        assertEquals("DevOps", nameOf(classifier.classify("Java developer moving to Cloud")));
+        assertEquals("QA", nameOf(classifier.classify("Python QA automation")));
+        assertEquals("Web Developer", nameOf(classifier.classify("AI with Python")));
+        assertEquals("PMBA", nameOf(classifier.classify("BA for AI projects")));
+        assertEquals("AI", nameOf(classifier.classify("AI")));
+        assertNull(classifier.classify("Graphic design"));
+        assertNull(classifier.classify(""));
+        assertNull(classifier.classify(null));
+    }
+
+    @Test
+    void ownKeywordsReplaceTheBuiltInOnes() {
+        givenCategories("QA", "Web Developer");
+        categories.get(0).setSpecializationKeywords("Testing, SDET");
+
+        assertEquals("QA", nameOf(classifier.classify("software testing")));
+        assertEquals("QA", nameOf(classifier.classify("sdet")));
+        // "qa" was only a built-in keyword of QA
+        assertNull(classifier.classify("qa"));
+        assertEquals("Web Developer", nameOf(classifier.classify("java")));
+    }
+
+    @Test
+    void categoriesWithoutBuiltInKeywordsMatchOnlyTheirOwnAfterTheBuiltInOnes() {
+        givenCategories("Design", "Web Developer", "Mobile");
+        categories.get(0).setSpecializationKeywords("design, ui");
+        categories.get(2).setSpecializationKeywords("flutter, android");
+
+        assertEquals("Design", nameOf(classifier.classify("UI design")));
+        // Web Developer keeps its built-in precedence over categories added later
+        assertEquals("Web Developer", nameOf(classifier.classify("flutter")));
+        assertEquals("Mobile", nameOf(classifier.classify("android")));
+        // Among added categories the one created first wins
+        assertEquals("Design", nameOf(classifier.classify("android ui")));
+    }
+
+    @Test
+    void cachesRulesUntilInvalidated() {
+        givenCategories("QA");
+
+        classifier.classify("qa");
+        classifier.classify("qa engineer");
+        verify(internCategoryRepository, times(1)).findAll();
+
+        categories.get(0).setSpecializationKeywords("testing");
+        assertEquals("QA", nameOf(classifier.classify("qa")));
+
+        // Outside a transaction the rules are dropped right away
+        classifier.invalidate();
+        assertNull(classifier.classify("qa"));
+        assertEquals("QA", nameOf(classifier.classify("testing")));
+        verify(internCategoryRepository, times(2)).findAll();
+    }
+
+    private void givenCategories(String... names) {
+        for (String name : names) {
+            InternCategory category = new InternCategory();
+            category.setCategoryId(categories.size() + 1);
+            category.setCategoryName(name);
+            categories.add(category);
+        }
+        when(internCategoryRepository.findAll()).thenReturn(categories);
+    }
+
+    private static String nameOf(InternCategory category) {
+        return category == null ? null : category.getCategoryName();
+    }
+
+    /**
+     * The classification the trainee sync used before the keywords were configurable.
+     */
+    private static String oldCategoryName(String specialization) {
+        String specLower = specialization.toLowerCase();
+        if (specLower.contains("devops") || specLower.contains("cloud") || specLower.contains("cicd")) {
+            return "DevOps";
+        }
+        if (specLower.contains("qa") || specLower.contains("quality assurance")) {
+            return "QA";
+        }
+        if (specLower.contains("fullstack") || specLower.contains("mern") || specLower.contains("c#")
+                || specLower.contains("java") || specLower.contains("python") || specLower.contains("flutter")
+                || specLower.contains("reactjs") || specLower.contains("php")) {
+            return "Web Developer";
+        }
+        if (specLower.contains("pm") || specLower.contains("ba")) {
+            return "PMBA";
+        }
+        if (specLower.contains("ai")) {
+            return "AI";
+        }
+        return null;
+    }
+}
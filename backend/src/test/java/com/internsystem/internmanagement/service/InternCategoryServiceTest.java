@@ -0,0 +1,40 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.InternCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "trainee.sync.cron=-")
+class InternCategoryServiceTest {
+
+    @Autowired
+    private InternCategoryService internCategoryService;
+
+    @Autowired
+    private InternCategoryClassifier internCategoryClassifier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void keywordUpdateReachesTheClassifierOnceCommitted() {
+        String keyword = "kw" + UUID.randomUUID().toString().replace("-", "");
+        InternCategory category = internCategoryService.createCategory("Category " + keyword);
+        assertNull(internCategoryClassifier.classify(keyword));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            internCategoryService.updateSpecializationKeywords(category.getCategoryId(), keyword);
+            // Not committed yet: other threads must not see the new keywords, so the cached rules stay
+            assertNull(internCategoryClassifier.classify(keyword));
+        });
+
+        assertEquals(category.getCategoryId(), internCategoryClassifier.classify(keyword).getCategoryId());
+    }
+}
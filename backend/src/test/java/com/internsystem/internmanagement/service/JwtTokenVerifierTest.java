@@ -0,0 +1,100 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.AuthUser;
+import com.internsystem.internmanagement.security.AuthenticatedUser;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenVerifierTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final String OTHER_SECRET = "fedcba9876543210fedcba9876543210fedcba9876543210";
+
+    @Test
+    void repeatedTokenIsServedFromTheCache() {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 10);
+        String token = token(SECRET, new Date(System.currentTimeMillis() + 60_000)).compact();
+
+        AuthenticatedUser user = verifier.verify(token).orElseThrow();
+
+        assertEquals(7L, user.getId());
+        assertEquals("user@example.com", user.getEmail());
+        assertEquals(AuthUser.Role.ADMIN, user.getRole());
+        assertEquals("T-7", user.getTraineeId());
+        // The cached user is handed out again instead of parsing the token a second time
+        assertSame(user, verifier.verify(token).orElseThrow());
+        assertEquals(1, verifier.cachedTokenCount());
+    }
+
+    @Test
+    void expiredCachedTokenIsRejectedAndEvicted() throws InterruptedException {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 10);
+        // The exp claim has whole seconds, so take the expiry the token actually carries
+        long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = token(SECRET, new Date(expiresAt)).compact();
+        assertTrue(verifier.verify(token).isPresent());
+        assertEquals(1, verifier.cachedTokenCount());
+
+        Thread.sleep(expiresAt - System.currentTimeMillis() + 100);
+
+        assertEquals(Optional.empty(), verifier.verify(token));
+        assertEquals(0, verifier.cachedTokenCount());
+    }
+
+    @Test
+    void tokenWithAnotherSignatureIsRejectedAndNotCached() {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 10);
+        String token = token(OTHER_SECRET, new Date(System.currentTimeMillis() + 60_000)).compact();
+
+        assertEquals(Optional.empty(), verifier.verify(token));
+        assertEquals(Optional.empty(), verifier.verify(token));
+        assertEquals(0, verifier.cachedTokenCount());
+    }
+
+    @Test
+    void tokenWithoutUserClaimsIsRejectedAndNotCached() {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 10);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        String withoutUserId = token(SECRET, expiration).claim("userId", null).compact();
+        String withoutRole = token(SECRET, expiration).claim("role", null).compact();
+
+        assertEquals(Optional.empty(), verifier.verify(withoutUserId));
+        assertEquals(Optional.empty(), verifier.verify(withoutRole));
+        assertEquals(0, verifier.cachedTokenCount());
+    }
+
+    @Test
+    void nonPositiveMaxEntriesDisablesTheCache() {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 0);
+        String token = token(SECRET, new Date(System.currentTimeMillis() + 60_000)).compact();
+
+        AuthenticatedUser first = verifier.verify(token).orElseThrow();
+        AuthenticatedUser second = verifier.verify(token).orElseThrow();
+
+        assertEquals(first.getId(), second.getId());
+        assertNotSame(first, second);
+        assertEquals(0, verifier.cachedTokenCount());
+    }
+
+    private static JwtBuilder token(String secret, Date expiration) {
+        return Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("userId", 7L)
+                .claim("role", "ADMIN")
+                .claim("traineeId", "T-7")
+                .setIssuedAt(new Date())
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+    }
+}
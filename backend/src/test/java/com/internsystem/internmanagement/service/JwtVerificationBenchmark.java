@@ -0,0 +1,127 @@
+package com.internsystem.internmanagement.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the token checks of JwtAuthenticationFilter: as they were before {@link JwtTokenVerifier}
+ * (key and parser built per call, token parsed twice), with the shared parser only, and with the
+ * verified-token cache. Each invocation checks the next of {@code tokens} distinct tokens, as sent by
+ * that many clients.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtVerificationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Param({"100", "5000"})
+    private int tokens;
+
+    private String[] issuedTokens;
+    private int next;
+
+    private JwtTokenVerifier uncachedVerifier;
+    private JwtTokenVerifier cachingVerifier;
+
+    @Setup
+    public void issueTokens() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Date expiry = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        issuedTokens = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            issuedTokens[i] = Jwts.builder()
+                    .setSubject("intern" + i + "@example.com")
+                    .claim("userId", (long) i)
+                    .claim("role", "INTERN")
+                    .claim("traineeId", "IN" + i)
+                    .setIssuedAt(new Date())
+                    .setExpiration(expiry)
+                    .signWith(key)
+                    .compact();
+        }
+        uncachedVerifier = new JwtTokenVerifier(SECRET, 0);
+        cachingVerifier = new JwtTokenVerifier(SECRET, 10_000);
+    }
+
+    private String nextToken() {
+        String token = issuedTokens[next];
+        next = (next + 1) % issuedTokens.length;
+        return token;
+    }
+
+    @Benchmark
+    public void legacyFilter(Blackhole blackhole) {
+        String token = nextToken();
+        String email = getEmailFromTokenLegacy(token);
+        blackhole.consume(email);
+        blackhole.consume(validateTokenLegacy(token));
+    }
+
+    @Benchmark
+    public void sharedParser(Blackhole blackhole) {
+        blackhole.consume(uncachedVerifier.verify(nextToken()));
+    }
+
+    @Benchmark
+    public void cachedClaims(Blackhole blackhole) {
+        blackhole.consume(cachingVerifier.verify(nextToken()));
+    }
+
+    /**
+     * Copies of the JwtService methods the filter called before JwtTokenVerifier.
+     */
+    private static SecretKey getSigningKeyLegacy() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    private static String getEmailFromTokenLegacy(String token) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(getSigningKeyLegacy())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        return claims.getSubject();
+    }
+
+    private static boolean validateTokenLegacy(String token) {
+        try {
+            Jwts.parserBuilder()
+                .setSigningKey(getSigningKeyLegacy())
+                .build()
+                .parseClaimsJws(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
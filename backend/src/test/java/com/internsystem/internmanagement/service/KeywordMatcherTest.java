@@ -0,0 +1,68 @@
+package com.internsystem.internmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordMatcherTest {
+
+    @Test
+    void returnsLowestRankOfAllContainedKeywordsWhateverTheirPosition() {
+        KeywordMatcher matcher = new KeywordMatcher(Map.of("java", 2, "cloud", 0, "qa", 1));
+
+        assertEquals(2, matcher.bestRank("java developer"));
+        assertEquals(0, matcher.bestRank("java on the cloud"));
+        assertEquals(1, matcher.bestRank("qa for java"));
+        assertEquals(0, matcher.bestRank("cloud qa java"));
+    }
+
+    @Test
+    void findsOverlappingAndNestedKeywords() {
+        KeywordMatcher matcher = new KeywordMatcher(Map.of("he", 3, "she", 2, "hers", 1, "his", 4));
+
+        // "ushers" contains "she", "he" and "hers", which overlap
+        assertEquals(1, matcher.bestRank("ushers"));
+        assertEquals(2, matcher.bestRank("ushe"));
+        assertEquals(4, matcher.bestRank("this"));
+        assertEquals(3, matcher.bestRank("hhe"));
+    }
+
+    @Test
+    void followsFailureLinksFromAbandonedLongerKeyword() {
+        KeywordMatcher matcher = new KeywordMatcher(Map.of("abcd", 0, "bce", 1));
+
+        // "abc" is a prefix of "abcd" only; the scan must fall back to "bc" to find "bce"
+        assertEquals(1, matcher.bestRank("abce"));
+        assertEquals(0, matcher.bestRank("xabcd"));
+    }
+
+    @Test
+    void matchesKeywordInsideLongerWords() {
+        KeywordMatcher matcher = new KeywordMatcher(Map.of("pm", 0, "ai", 1, "c#", 2));
+
+        assertEquals(0, matcher.bestRank("npm"));
+        assertEquals(1, matcher.bestRank("maintenance"));
+        assertEquals(2, matcher.bestRank("C# .NET"));
+        assertEquals(KeywordMatcher.NO_MATCH, matcher.bestRank("c sharp"));
+    }
+
+    @Test
+    void ignoresCaseOfKeywordsAndText() {
+        KeywordMatcher matcher = new KeywordMatcher(Map.of("DevOps", 0, "quality assurance", 1));
+
+        assertEquals(0, matcher.bestRank("DEVOPS"));
+        assertEquals(0, matcher.bestRank("devops"));
+        assertEquals(1, matcher.bestRank("Quality Assurance Engineer"));
+    }
+
+    @Test
+    void ignoresBlankKeywordsAndTrimsOthers() {
+        KeywordMatcher matcher = new KeywordMatcher(Map.of("", 0, "  ", 1, " php ", 2));
+
+        assertEquals(KeywordMatcher.NO_MATCH, matcher.bestRank("anything"));
+        assertEquals(KeywordMatcher.NO_MATCH, matcher.bestRank(""));
+        assertEquals(2, matcher.bestRank("php"));
+    }
+}
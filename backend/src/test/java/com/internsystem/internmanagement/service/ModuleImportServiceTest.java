@@ -0,0 +1,192 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.entity.Project;
+import com.internsystem.internmanagement.entity.ProjectStatus;
+import com.internsystem.internmanagement.entity.ProjectTeam;
+import com.internsystem.internmanagement.entity.Team;
+import com.internsystem.internmanagement.entity.TeamMember;
+import com.internsystem.internmanagement.repository.InternRepository;
+import com.internsystem.internmanagement.repository.ProjectRepository;
+import com.internsystem.internmanagement.repository.ProjectTeamRepository;
+import com.internsystem.internmanagement.repository.TeamMemberRepository;
+import com.internsystem.internmanagement.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "trainee.sync.cron=-")
+class ModuleImportServiceTest {
+
+    private static final String HEADER = "module_name,module_description,module_owner_intern_code,module_status,"
+            + "function_name,function_description,function_developer_intern_code,function_status\n";
+
+    @Autowired
+    private ModuleImportService moduleImportService;
+
+    @Autowired
+    private InternRepository internRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectTeamRepository projectTeamRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reimportWritesOnlyChangedRows() throws Exception {
+        String prefix = "M" + UUID.randomUUID().toString().substring(0, 8);
+        Long projectId = createProjectWithMembers(prefix);
+
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int m = 0; m < 4; m++) {
+            for (int f = 0; f < 3; f++) {
+                csv.append("Module").append(m).append(",\"Module ").append(m).append(", first version\",")
+                        .append(prefix).append("-OWNER,NOT_STARTED,Function").append(f).append(",Does ").append(f)
+                        .append(',').append(prefix).append("-DEV,PENDING\n");
+            }
+        }
+        String file = csv.toString();
+
+        assertEquals(12, importFile(file, projectId).getSuccessCount());
+        Map<String, Map<String, Object>> imported = snapshot(projectId);
+        assertEquals(16, imported.size());
+
+        Thread.sleep(10);
+        ModuleImportService.ModuleImportResult reimport = importFile(file, projectId);
+
+        assertEquals(12, reimport.getSuccessCount());
+        assertTrue(reimport.getErrors().isEmpty(), reimport.getErrors().toString());
+        // Same ids, values and updated_at: nothing was inserted or updated
+        assertEquals(imported, snapshot(projectId));
+
+        Thread.sleep(10);
+        String edited = file
+                .replace("Module2,\"Module 2, first version\"", "Module2,\"Module 2, second version\"")
+                .replace("Module1,\"Module 1, first version\"," + prefix + "-OWNER,NOT_STARTED,Function2,Does 2,"
+                                + prefix + "-DEV,PENDING",
+                        "Module1,\"Module 1, first version\"," + prefix + "-OWNER,NOT_STARTED,Function2,Does more,"
+                                + prefix + "-DEV,COMPLETED");
+        assertEquals(12, importFile(edited, projectId).getSuccessCount());
+
+        Map<String, Map<String, Object>> updated = snapshot(projectId);
+        assertEquals(imported.keySet(), updated.keySet());
+        for (String row : imported.keySet()) {
+            if (row.equals("module Module2") || row.equals("function Module1/Function2")) {
+                assertNotEquals(imported.get(row).get("updated_at"), updated.get(row).get("updated_at"), row);
+            } else {
+                assertEquals(imported.get(row), updated.get(row), row);
+            }
+        }
+        assertEquals("Module 2, second version", updated.get("module Module2").get("description"));
+        assertEquals("Does more", updated.get("function Module1/Function2").get("description"));
+        assertEquals("COMPLETED", updated.get("function Module1/Function2").get("status"));
+    }
+
+    @Test
+    void failedFunctionBatchCommitsNothing() {
+        String prefix = "M" + UUID.randomUUID().toString().substring(0, 8);
+        Long projectId = createProjectWithMembers(prefix);
+        // The second function name does not fit its column, so the function batch fails after the modules
+        // were written
+        String csv = HEADER
+                + "Module0,First," + prefix + "-OWNER,NOT_STARTED,Function0,Does 0," + prefix + "-DEV,PENDING\n"
+                + "Module1,Second," + prefix + "-OWNER,NOT_STARTED," + "F".repeat(300) + ",Does 1,"
+                + prefix + "-DEV,PENDING\n";
+
+        ModuleImportService.ModuleImportResult result = importFile(csv, projectId);
+
+        assertEquals(0, result.getSuccessCount());
+        assertEquals(2, result.getFailedCount());
+        assertTrue(result.getErrors().get(0).startsWith("Line 0: File processing error"), result.getErrors().toString());
+        assertEquals(Map.of(), snapshot(projectId));
+    }
+
+    private ModuleImportService.ModuleImportResult importFile(String csv, Long projectId) {
+        return moduleImportService.importModulesAndFunctions(
+                new MockMultipartFile("file", "modules.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), projectId);
+    }
+
+    /**
+     * A project whose only team has the module owner and the function developer as members.
+     */
+    private Long createProjectWithMembers(String prefix) {
+        return transactionTemplate.execute(status -> {
+            Intern owner = createIntern(prefix + "-OWNER");
+            Intern developer = createIntern(prefix + "-DEV");
+
+            Team team = new Team();
+            team.setTeamName(prefix + " team");
+            team.setTeamLeader(owner);
+            team = teamRepository.save(team);
+            for (Intern intern : List.of(owner, developer)) {
+                TeamMember member = new TeamMember();
+                member.setTeam(team);
+                member.setIntern(intern);
+                teamMemberRepository.save(member);
+            }
+
+            Project project = new Project();
+            project.setProjectName(prefix + " project");
+            project.setStatus(ProjectStatus.IN_PROGRESS);
+            project = projectRepository.save(project);
+            ProjectTeam projectTeam = new ProjectTeam();
+            projectTeam.setProject(project);
+            projectTeam.setTeam(team);
+            projectTeamRepository.save(projectTeam);
+            return project.getProjectId();
+        });
+    }
+
+    private Intern createIntern(String internCode) {
+        Intern intern = new Intern();
+        intern.setInternCode(internCode);
+        intern.setName(internCode);
+        intern.setEmail(internCode.toLowerCase() + "@example.com");
+        return internRepository.save(intern);
+    }
+
+    /**
+     * Every stored module and function of the project, keyed by name.
+     */
+    private Map<String, Map<String, Object>> snapshot(Long projectId) {
+        Map<String, Map<String, Object>> rows = new HashMap<>();
+        for (Map<String, Object> module : jdbcTemplate.queryForList(
+                "SELECT module_id, module_name, description, owner_intern_id, status, updated_at "
+                        + "FROM modules WHERE project_id = ?", projectId)) {
+            rows.put("module " + module.get("module_name"), module);
+        }
+        for (Map<String, Object> function : jdbcTemplate.queryForList(
+                "SELECT f.function_id, m.module_name, f.function_name, f.description, f.developer_intern_id, "
+                        + "f.status, f.updated_at FROM functions f JOIN modules m ON m.module_id = f.module_id "
+                        + "WHERE m.project_id = ?", projectId)) {
+            rows.put("function " + function.get("module_name") + "/" + function.get("function_name"), function);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,96 @@
+package com.internsystem.internmanagement.service;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpreadsheetStreamReaderTest {
+
+    private static final List<String> EXPECTED_ROWS = List.of(
+            "2:[C1, Zoë, 2024-02-01]",
+            "4:[C2, , ]");
+
+    private final SpreadsheetStreamReader spreadsheetStreamReader = new SpreadsheetStreamReader();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsXlsUpload() throws Exception {
+        byte[] workbook = write(new HSSFWorkbook());
+
+        assertEquals(EXPECTED_ROWS, read("data.xls", new ByteArrayResource(workbook)));
+    }
+
+    @Test
+    void readsXlsFile() throws Exception {
+        byte[] workbook = write(new HSSFWorkbook());
+        Path file = Files.write(tempDir.resolve("data.xls"), workbook);
+
+        assertEquals(EXPECTED_ROWS, read("data.xls", new FileSystemResource(file)));
+        // Opened read-only, so the file is left as it was
+        assertArrayEquals(workbook, Files.readAllBytes(file));
+    }
+
+    @Test
+    void readsXlsxUpload() throws Exception {
+        byte[] workbook = write(new XSSFWorkbook());
+
+        assertEquals(EXPECTED_ROWS, read("data.xlsx", new ByteArrayResource(workbook)));
+    }
+
+    private List<String> read(String filename, InputStreamSource source) throws Exception {
+        List<String> rows = new ArrayList<>();
+        spreadsheetStreamReader.read(filename, source, 3,
+                (lineNumber, values) -> rows.add(lineNumber + ":" + Arrays.toString(values)));
+        return rows;
+    }
+
+    /**
+     * A header row, a data row with text and date cells, an empty row and a row with only
+     * its first cell set.
+     */
+    private static byte[] write(Workbook workbook) throws Exception {
+        try (workbook) {
+            Sheet sheet = workbook.createSheet("Data");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("intern_code");
+            header.createCell(1).setCellValue("name");
+            header.createCell(2).setCellValue("start_date");
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+            Row data = sheet.createRow(1);
+            data.createCell(0).setCellValue("C1");
+            data.createCell(1).setCellValue("Zoë");
+            data.createCell(2).setCellValue(LocalDate.of(2024, 2, 1));
+            data.getCell(2).setCellStyle(dateStyle);
+
+            sheet.createRow(2);
+            sheet.createRow(3).createCell(0).setCellValue("C2");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.internsystem.internmanagement.service;
+
+import com.internsystem.internmanagement.entity.Intern;
+import com.internsystem.internmanagement.repository.InternRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.h2.engine.Mode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Runs the trainee sync against a local stub of the trainee API. The stub generates its response while
+ * writing it (chunked), so large payloads never exist as one string on either side.
+ *
+ * Chunks are written by four workers, as in production. In MySQL mode, H2 (the test database) moves an
+ * identity column's sequence up to every inserted value, generated ones included, to mimic MySQL
+ * accepting explicit auto_increment values (Column.updateSequenceIfRequired). That read-compare-modify
+ * is not atomic, so under concurrent inserts it can set the sequence back and hand out a value twice,
+ * which showed up here as duplicate auth.id keys. The application never inserts explicit IDs, so the
+ * emulation is switched off for these tests; MySQL's auto_increment has no such race.
+ */
+@SpringBootTest(properties = {"trainee.sync.cron=-", "trainee.sync.concurrency=4"})
+class TraineeSyncServiceTest {
+
+    static {
+        Mode.getInstance("MySQL").updateSequenceOnManualIdentityInsertion = false;
+    }
+
+    private static final int LARGE_PAYLOAD_TRAINEES = 10_000;
+
+    private static final HttpServer stubServer = startStubServer();
+
+    // Shape of the next stub response
+    private static volatile String codePrefix = "EMPTY";
+    private static volatile int traineeCount;
+    private static volatile boolean legacyFormat;
+    private static volatile int renamedTrainees;
+    private static volatile String rawResponse;
+
+    @Autowired
+    private TraineeSyncService traineeSyncService;
+
+    @Autowired
+    private TraineeSyncStatus traineeSyncStatus;
+
+    @Autowired
+    private InternRepository internRepository;
+
+    @Autowired
+    private InternAuthUserLinkService internAuthUserLinkService;
+
+    @Autowired
+    @Qualifier("traineeSyncWorkerExecutor")
+    private ThreadPoolTaskExecutor traineeSyncWorkerExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private ImportBatchWriter importBatchWriter;
+
+    @DynamicPropertySource
+    static void traineeApiUrl(DynamicPropertyRegistry registry) {
+        registry.add("trainee.api.active-trainees-url",
+                () -> "http://localhost:" + stubServer.getAddress().getPort() + "/AllActiveTrainees");
+    }
+
+    @AfterAll
+    static void stopStubServer() {
+        stubServer.stop(0);
+    }
+
+    @Test
+    void syncsLargeArrayResponseAndSkipsUnchangedTrainees() throws Exception {
+        assertTrue(traineeSyncWorkerExecutor.getMaxPoolSize() > 1, "chunks must be written in parallel");
+        respondWith("BIG", LARGE_PAYLOAD_TRAINEES, false, 0);
+        sync();
+
+        assertEquals(TraineeSyncStatus.State.SUCCEEDED, traineeSyncStatus.getState());
+        assertEquals(LARGE_PAYLOAD_TRAINEES, traineeSyncStatus.getLastTraineeCount());
+        Intern last = internRepository.findByInternCode("BIG" + (LARGE_PAYLOAD_TRAINEES - 1)).orElseThrow();
+        assertEquals("Trainee " + (LARGE_PAYLOAD_TRAINEES - 1), last.getName());
+        assertEquals(LocalDate.of(2024, 1, 2), last.getTrainingStartDate());
+        LocalDateTime firstWrite = last.getUpdatedAt();
+
+        // Same content again: nothing is written
+        sync();
+        assertEquals(TraineeSyncStatus.State.SUCCEEDED, traineeSyncStatus.getState());
+        assertEquals(firstWrite, internRepository.findByInternCode("BIG" + (LARGE_PAYLOAD_TRAINEES - 1))
+                .orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void syncsLegacyDataBundleResponse() throws Exception {
+        respondWith("OLD", 50, false, 0);
+        sync();
+        LocalDateTime firstWrite = internRepository.findByInternCode("OLD10").orElseThrow().getUpdatedAt();
+
+        // The legacy format carries the same trainees under the old field names; only the renamed one changes
+        respondWith("OLD", 50, true, 1);
+        sync();
+
+        assertEquals(TraineeSyncStatus.State.SUCCEEDED, traineeSyncStatus.getState());
+        assertEquals(50, traineeSyncStatus.getLastTraineeCount());
+        Intern renamed = internRepository.findByInternCode("OLD0").orElseThrow();
+        assertEquals("Trainee 0 (renamed)", renamed.getName());
+        assertEquals(LocalDate.of(2024, 8, 1), renamed.getTrainingEndDate());
+        assertEquals(firstWrite, internRepository.findByInternCode("OLD10").orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void resyncDropsTheCachedLinksOfChangedTrainees() throws Exception {
+        respondWith("LINK", 3, false, 0);
+        sync();
+        Intern changed = internRepository.findByInternCode("LINK0").orElseThrow();
+        Intern unchanged = internRepository.findByInternCode("LINK1").orElseThrow();
+        assertTrue(internAuthUserLinkService.findAuthUserForIntern(changed).isPresent());
+        assertTrue(internAuthUserLinkService.findAuthUserForIntern(unchanged).isPresent());
+
+        respondWith("LINK", 3, false, 1);
+        sync();
+
+        assertFalse(internAuthUserLinkService.isLinkCached(changed.getInternId()));
+        assertTrue(internAuthUserLinkService.isLinkCached(unchanged.getInternId()));
+    }
+
+    @Test
+    void retriesChunkThatLostADeadlock() throws Exception {
+        doThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"))
+                .doCallRealMethod()
+                .when(importBatchWriter).insertInterns(anyList());
+        double retriesBefore = meterRegistry.counter("trainee.sync.chunk.retries").count();
+
+        respondWith("RETRY", 2000, false, 0);
+        sync();
+
+        assertEquals(TraineeSyncStatus.State.SUCCEEDED, traineeSyncStatus.getState());
+        assertEquals(retriesBefore + 1, meterRegistry.counter("trainee.sync.chunk.retries").count());
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(internRepository.findByInternCode("RETRY" + i).isPresent(), "RETRY" + i + " missing");
+        }
+    }
+
+    @Test
+    void reportsResponseWithoutTraineesArrayAsFailure() throws Exception {
+        rawResponse = "{\"status\":\"error\",\"dataBundle\":null}";
+        sync();
+
+        assertEquals(TraineeSyncStatus.State.FAILED, traineeSyncStatus.getState());
+        assertTrue(traineeSyncStatus.getLastError().contains("No trainees array"));
+    }
+
+    private void sync() throws InterruptedException {
+        // Let the startup sync finish first, otherwise this one would be skipped
+        while (traineeSyncStatus.getState() == TraineeSyncStatus.State.NOT_STARTED
+                || traineeSyncStatus.getState() == TraineeSyncStatus.State.RUNNING) {
+            Thread.sleep(20);
+        }
+        traineeSyncService.syncAllInternsFromApi();
+    }
+
+    private static void respondWith(String prefix, int count, boolean legacy, int renamed) {
+        rawResponse = null;
+        codePrefix = prefix;
+        traineeCount = count;
+        legacyFormat = legacy;
+        renamedTrainees = renamed;
+    }
+
+    private static HttpServer startStubServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/AllActiveTrainees", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, 0);
+                try (Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+                    if (rawResponse != null) {
+                        writer.write(rawResponse);
+                    } else {
+                        writeTrainees(writer);
+                    }
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the trainee API stub", e);
+        }
+    }
+
+    private static void writeTrainees(Writer writer) throws IOException {
+        writer.write(legacyFormat ? "{\"status\":\"ok\",\"meta\":{\"page\":[1]},\"dataBundle\":[" : "[");
+        for (int i = 0; i < traineeCount; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String name = "Trainee " + i + (i < renamedTrainees ? " (renamed)" : "");
+            if (legacyFormat) {
+                writer.write("{\"Trainee_ID\":\"" + codePrefix + i + "\",\"Trainee_Name\":\"" + name
+                        + "\",\"Institute\":\"University of Moratuwa\",\"Trainee_Email\":\"" + codePrefix.toLowerCase() + i
+                        + "@example.com\",\"field_of_spec_name\":\"Java Fullstack\",\"Training_StartDate\":\"1/2/2024 12:00:00 AM\""
+                        + ",\"Training_EndDate\":\"8/1/2024\",\"extra\":{\"skills\":[\"java\"]}}");
+            } else {
+                writer.write("{\"internCode\":\"" + codePrefix + i + "\",\"name\":\"" + name
+                        + "\",\"institute\":\"University of Moratuwa\",\"email\":\"" + codePrefix.toLowerCase() + i
+                        + "@example.com\",\"specialization\":\"Java Fullstack\",\"trainingStartDate\":\"2024-01-02\""
+                        + ",\"trainingEndDate\":\"2024-08-01\"}");
+            }
+        }
+        writer.write(legacyFormat ? "]}" : "]");
+    }
+}
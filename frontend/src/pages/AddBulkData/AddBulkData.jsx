@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { bulkImportService } from '../../services/api';
 import styles from './AddBulkData.module.css';
 
@@ -7,6 +7,13 @@ const AddBulkData = () => {
   const [uploading, setUploading] = useState(false);
   const [results, setResults] = useState(null);
   const [error, setError] = useState('');
+  const [job, setJob] = useState(null);
+  const [preview, setPreview] = useState(null);
+  const pollTimer = useRef(null);
+
+  const JOB_POLL_INTERVAL_MS = 1000;
+
+  useEffect(() => () => clearTimeout(pollTimer.current), []);
 
   const handleFileChange = (e) => {
     const selectedFile = e.target.files[0];
@@ -14,12 +21,13 @@ const AddBulkData = () => {
         selectedFile.type === 'text/csv' || 
         selectedFile.type === 'application/vnd.openxmlformats-officedocument.spreadsheetml.sheet' ||
         selectedFile.name.toLowerCase().endsWith('.csv') ||
-        selectedFile.name.toLowerCase().endsWith('.xlsx')
+        selectedFile.name.toLowerCase().endsWith('.xlsx') ||
+        selectedFile.name.toLowerCase().endsWith('.xls')
     )) {
       setFile(selectedFile);
       setError('');
     } else {
-      setError('Please select a valid CSV or Excel (.xlsx) file');
+      setError('Please select a valid CSV or Excel (.xlsx, .xls) file');
       setFile(null);
     }
   };
@@ -34,24 +42,98 @@ const AddBulkData = () => {
       setUploading(true);
       setError('');
       
+      setResults(null);
+      setPreview(null);
+      
       const response = await bulkImportService.uploadBulkData(file);
-      setResults({
-        success: response.data.successCount,
-        failed: response.data.failedCount,
-        total: response.data.totalCount,
-        errors: response.data.errors
-      });
+      setJob(response.data);
+      pollJob(response.data.jobId);
     } catch (err) {
       console.error('Upload error:', err);
       setError(
         err.response?.data?.message || 
+        err.response?.data?.errors?.[0] ||
         'Upload failed. Please check your file format and try again.'
       );
+      setUploading(false);
+    }
+  };
+
+  const handlePreview = async () => {
+    if (!file) {
+      setError('Please select a file first');
+      return;
+    }
+
+    try {
+      setUploading(true);
+      setError('');
+      setResults(null);
+      const response = await bulkImportService.previewBulkData(file);
+      setPreview(response.data);
+    } catch (err) {
+      console.error('Preview error:', err);
+      setError(err.response?.data?.errors?.[0] || 'Preview failed. Please check your file format and try again.');
     } finally {
       setUploading(false);
     }
   };
 
+  const pollJob = async (jobId) => {
+    try {
+      const response = await bulkImportService.getImportJob(jobId);
+      const current = response.data;
+      setJob(current);
+      
+      if (current.finishedAt) {
+        setResults({
+          success: current.successCount,
+          failed: current.failedCount,
+          total: current.totalCount,
+          errors: current.errors
+        });
+        if (current.status === 'CANCELLED') {
+          setError(current.resumable
+            ? `Import was cancelled after line ${current.checkpointLine} (${current.checkpointPhase}). You can resume it.`
+            : 'Import was cancelled. No changes were saved.');
+        }
+        setUploading(false);
+        return;
+      }
+      pollTimer.current = setTimeout(() => pollJob(jobId), JOB_POLL_INTERVAL_MS);
+    } catch (err) {
+      console.error('Import status error:', err);
+      setError('Lost track of the import job. Please refresh the page to check the data.');
+      setUploading(false);
+    }
+  };
+
+  const handleResume = async () => {
+    if (!job) return;
+    try {
+      setUploading(true);
+      setError('');
+      setResults(null);
+      const response = await bulkImportService.resumeImportJob(job.jobId);
+      setJob(response.data);
+      pollJob(response.data.jobId);
+    } catch (err) {
+      console.error('Resume error:', err);
+      setError(err.response?.data?.message || 'Failed to resume the import.');
+      setUploading(false);
+    }
+  };
+
+  const handleCancel = async () => {
+    if (!job) return;
+    try {
+      await bulkImportService.cancelImportJob(job.jobId);
+    } catch (err) {
+      console.error('Cancel error:', err);
+      setError('Failed to cancel the import.');
+    }
+  };
+
   const downloadTemplate = () => {
     try {
       // Create a direct link to the template file in the public folder
@@ -161,7 +243,7 @@ const AddBulkData = () => {
             <div className={styles.fileInput}>
               <input
                 type="file"
-                accept=".csv,.xlsx"
+                accept=".csv,.xlsx,.xls"
                 onChange={handleFileChange}
                 className={styles.hiddenInput}
                 id="dataFile"
@@ -171,15 +253,84 @@ const AddBulkData = () => {
               </label>
             </div>
 
+            <button
+              className={styles.templateBtn}
+              onClick={handlePreview}
+              disabled={!file || uploading}
+            >
+              Preview Changes
+            </button>
+
             <button
               className={styles.uploadBtn}
               onClick={handleUpload}
               disabled={!file || uploading}
             >
-              {uploading ? 'Uploading...' : 'Upload File'}
+              {uploading ? 'Importing...' : 'Upload File'}
             </button>
+            {uploading && job && (
+              <button
+                className={styles.templateBtn}
+                onClick={handleCancel}
+              >
+                Cancel Import
+              </button>
+            )}
+            {!uploading && job?.resumable && (
+              <button
+                className={styles.templateBtn}
+                onClick={handleResume}
+              >
+                Resume Import
+              </button>
+            )}
           </div>
 
+          {uploading && job && (
+            <div className={styles.formatInfo}>
+              <h4>Import Progress:</h4>
+              <p>
+                Status: {job.status} | Phase: {job.phase} | Rows: {job.rowsProcessed}
+                {job.totalRows != null ? ` / ${job.totalRows}` : ''} | {job.rowsPerSecond} rows/sec
+              </p>
+            </div>
+          )}
+
+          {preview && (
+            <div className={styles.results}>
+              <h4>Preview (nothing has been saved):</h4>
+              <div className={styles.resultStats}>
+                {[
+                  ['Interns', preview.interns],
+                  ['Teams', preview.teams],
+                  ['Projects', preview.projects],
+                  ['Team Memberships', preview.teamMemberships],
+                  ['Project Teams', preview.projectTeams]
+                ].map(([label, summary]) => (
+                  <div key={label} className={styles.stat}>
+                    <span className={styles.statNumber}>
+                      +{summary.toCreate} / ~{summary.toUpdate} / ={summary.unchanged}
+                    </span>
+                    <span className={styles.statLabel}>{label} (new / updated / unchanged)</span>
+                  </div>
+                ))}
+              </div>
+
+              {preview.errors && preview.errors.length > 0 && (
+                <div className={styles.errorsList}>
+                  <h5>Rows that would fail:</h5>
+                  <ul>
+                    {preview.errors.map((previewError, index) => (
+                      <li key={index} className={styles.errorItem}>
+                        {previewError}
+                      </li>
+                    ))}
+                  </ul>
+                </div>
+              )}
+            </div>
+          )}
+
           {results && (
             <div className={styles.results}>
               <h4>Upload Results:</h4>
@@ -228,7 +379,7 @@ const AddBulkData = () => {
           <div className={styles.note}>
             <strong>Important Notes:</strong>
             <ul>
-              <li>Both CSV and Excel (.xlsx) files are supported</li>
+              <li>Both CSV and Excel (.xlsx, .xls) files are supported</li>
               <li>If an intern, team, or project already exists, only new information will be added</li>
               <li>Interns can be assigned to multiple teams by having multiple rows with the same intern_code</li>
               <li>Team leaders must be defined as interns first (either in earlier rows or existing data)</li>
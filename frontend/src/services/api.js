@@ -117,7 +117,7 @@ export const projectService = {
 };
 
 export const bulkImportService = {
-  // POST upload bulk data CSV or Excel
+  // POST upload bulk data CSV or Excel; returns the queued import job
   uploadBulkData: (file) => {
     const formData = new FormData();
     formData.append('file', file);
@@ -128,13 +128,36 @@ export const bulkImportService = {
     });
   },
 
-  // GET export current data as CSV
-  exportDataAsCSV: () => api.get('/bulk-import/export', {
+  // POST dry run: returns what the file would change without writing anything
+  previewBulkData: (file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    return api.post('/bulk-import/upload', formData, {
+      params: { dryRun: true },
+      headers: {
+        'Content-Type': 'multipart/form-data',
+      },
+    });
+  },
+
+  // GET progress of an import job
+  getImportJob: (jobId) => api.get(`/bulk-import/jobs/${jobId}`),
+
+  // DELETE cancel an import job
+  cancelImportJob: (jobId) => api.delete(`/bulk-import/jobs/${jobId}`),
+
+  // POST resume a failed or cancelled import job from its last committed chunk
+  resumeImportJob: (jobId) => api.post(`/bulk-import/jobs/${jobId}/resume`),
+
+  // GET export current data as CSV; with since, only rows changed after it (see X-Export-Watermark)
+  exportDataAsCSV: (since) => api.get('/bulk-import/export', {
+    params: since ? { since } : undefined,
     responseType: 'blob',
   }),
 
-  // GET export current data as Excel
-  exportDataAsExcel: () => api.get('/bulk-import/export/excel', {
+  // GET export current data as Excel; with since, only rows changed after it
+  exportDataAsExcel: (since) => api.get('/bulk-import/export/excel', {
+    params: since ? { since } : undefined,
     responseType: 'blob',
   }),
 };